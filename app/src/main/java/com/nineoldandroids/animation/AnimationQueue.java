@@ -0,0 +1,126 @@
+package com.nineoldandroids.animation;
+
+/**
+ * List of animators used by the animation loop of {@link ValueAnimator}. Every animator
+ * remembers its slot in each queue, so adding, removing and lookups are O(1) and
+ * allocate nothing once the queue has grown to its working size.
+ * <p>
+ * Removing an animator only empties its slot, so the queue may be iterated by index
+ * from 0 to {@link #end()} while animators are added and removed. Empty slots are
+ * dropped by {@link #compact()}, which must not be called during such iteration.
+ * </p>
+ */
+final class AnimationQueue {
+
+	// kinds of queues, index to ValueAnimator.mQueueSlots
+	static final int ACTIVE = 0;
+	static final int PENDING = 1;
+	static final int DELAYED = 2;
+	static final int ENDING = 3;
+	static final int KIND_COUNT = 4;
+
+	private final int kind;
+	private ValueAnimator[] items = new ValueAnimator[16];
+	// slots in use, including emptied ones
+	private int end;
+	// animators in the queue
+	private int count;
+
+	AnimationQueue(int kind) {
+		this.kind = kind;
+	}
+
+	static int[] newSlots() {
+		int[] slots = new int[KIND_COUNT];
+		for (int i = 0; i < KIND_COUNT; i++) {
+			slots[i] = -1;
+		}
+		return slots;
+	}
+
+	/**
+	 * Appends the animator, unless it is already in the queue.
+	 */
+	void add(ValueAnimator anim) {
+		if (anim.mQueueSlots[kind] >= 0) {
+			return;
+		}
+		if (end == items.length) {
+			ValueAnimator[] grown = new ValueAnimator[end * 2];
+			System.arraycopy(items, 0, grown, 0, end);
+			items = grown;
+		}
+		anim.mQueueSlots[kind] = end;
+		items[end++] = anim;
+		count++;
+	}
+
+	boolean remove(ValueAnimator anim) {
+		int slot = anim.mQueueSlots[kind];
+		if (slot < 0) {
+			return false;
+		}
+		items[slot] = null;
+		anim.mQueueSlots[kind] = -1;
+		count--;
+		return true;
+	}
+
+	boolean contains(ValueAnimator anim) {
+		return anim.mQueueSlots[kind] >= 0;
+	}
+
+	/**
+	 * @return animator in the slot, or null for an emptied slot
+	 */
+	ValueAnimator get(int slot) {
+		return items[slot];
+	}
+
+	/**
+	 * @return number of slots to iterate over
+	 */
+	int end() {
+		return end;
+	}
+
+	int size() {
+		return count;
+	}
+
+	boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Moves the animators over the emptied slots, keeping their order.
+	 */
+	void compact() {
+		if (count == end) {
+			return;
+		}
+		int j = 0;
+		for (int i = 0; i < end; i++) {
+			ValueAnimator anim = items[i];
+			if (anim != null) {
+				anim.mQueueSlots[kind] = j;
+				items[j++] = anim;
+			}
+		}
+		for (int i = j; i < end; i++) {
+			items[i] = null;
+		}
+		end = j;
+	}
+
+	void clear() {
+		for (int i = 0; i < end; i++) {
+			ValueAnimator anim = items[i];
+			if (anim != null) {
+				anim.mQueueSlots[kind] = -1;
+				items[i] = null;
+			}
+		}
+		end = count = 0;
+	}
+}
@@ -33,9 +33,13 @@ import java.util.ArrayList;
  * </p>
  */
 class FloatKeyframeSet extends KeyframeSet {
-	private float firstValue;
-	private float lastValue;
+	// parallel arrays of the keyframes, filled on the first getFloatValue()
+	private float[] fractions;
+	private float[] values;
+	private/* Time */Interpolator[] interpolators;
 	private float deltaValue;
+	// interval found by the last lookup, see findInterval()
+	private int lastInterval = 1;
 	private boolean firstTime = true;
 
 	public FloatKeyframeSet(FloatKeyframe... keyframes) {
@@ -59,67 +63,64 @@ class FloatKeyframeSet extends KeyframeSet {
 		return newSet;
 	}
 
+	@Override
+	void invalidateValues() {
+		firstTime = true;
+	}
+
+	private void cacheKeyframes() {
+		int numKeyframes = mNumKeyframes;
+		if (fractions == null) {
+			fractions = new float[numKeyframes];
+			values = new float[numKeyframes];
+			interpolators = new Interpolator[numKeyframes];
+		}
+		for (int i = 0; i < numKeyframes; ++i) {
+			FloatKeyframe keyframe = (FloatKeyframe) mKeyframes.get(i);
+			fractions[i] = keyframe.getFraction();
+			values[i] = keyframe.getFloatValue();
+			interpolators[i] = keyframe.getInterpolator();
+		}
+		deltaValue = values[numKeyframes - 1] - values[0];
+	}
+
 	public float getFloatValue(float fraction) {
+		if (firstTime) {
+			firstTime = false;
+			cacheKeyframes();
+		}
 		if (mNumKeyframes == 2) {
-			if (firstTime) {
-				firstTime = false;
-				firstValue = ((FloatKeyframe) mKeyframes.get(0)).getFloatValue();
-				lastValue = ((FloatKeyframe) mKeyframes.get(1)).getFloatValue();
-				deltaValue = lastValue - firstValue;
-			}
 			if (mInterpolator != null) {
 				fraction = mInterpolator.getInterpolation(fraction);
 			}
 			if (mEvaluator == null) {
-				return firstValue + fraction * deltaValue;
+				return values[0] + fraction * deltaValue;
 			} else {
-				return ((Number) mEvaluator.evaluate(fraction, firstValue, lastValue)).floatValue();
+				return ((Number) mEvaluator.evaluate(fraction, values[0], values[1])).floatValue();
 			}
 		}
+		int next;
 		if (fraction <= 0f) {
-			final FloatKeyframe prevKeyframe = (FloatKeyframe) mKeyframes.get(0);
-			final FloatKeyframe nextKeyframe = (FloatKeyframe) mKeyframes.get(1);
-			float prevValue = prevKeyframe.getFloatValue();
-			float nextValue = nextKeyframe.getFloatValue();
-			float prevFraction = prevKeyframe.getFraction();
-			float nextFraction = nextKeyframe.getFraction();
-			final/* Time */Interpolator interpolator = nextKeyframe.getInterpolator();
-			if (interpolator != null) {
-				fraction = interpolator.getInterpolation(fraction);
-			}
-			float intervalFraction = (fraction - prevFraction) / (nextFraction - prevFraction);
-			return mEvaluator == null ? prevValue + intervalFraction * (nextValue - prevValue) : ((Number) mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).floatValue();
+			next = 1;
 		} else if (fraction >= 1f) {
-			final FloatKeyframe prevKeyframe = (FloatKeyframe) mKeyframes.get(mNumKeyframes - 2);
-			final FloatKeyframe nextKeyframe = (FloatKeyframe) mKeyframes.get(mNumKeyframes - 1);
-			float prevValue = prevKeyframe.getFloatValue();
-			float nextValue = nextKeyframe.getFloatValue();
-			float prevFraction = prevKeyframe.getFraction();
-			float nextFraction = nextKeyframe.getFraction();
-			final/* Time */Interpolator interpolator = nextKeyframe.getInterpolator();
-			if (interpolator != null) {
-				fraction = interpolator.getInterpolation(fraction);
+			next = mNumKeyframes - 1;
+		} else {
+			next = findInterval(fractions, fraction, lastInterval);
+			if (next == mNumKeyframes) {
+				// shouldn't get here
+				return values[mNumKeyframes - 1];
 			}
-			float intervalFraction = (fraction - prevFraction) / (nextFraction - prevFraction);
-			return mEvaluator == null ? prevValue + intervalFraction * (nextValue - prevValue) : ((Number) mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).floatValue();
+			lastInterval = next;
 		}
-		FloatKeyframe prevKeyframe = (FloatKeyframe) mKeyframes.get(0);
-		for (int i = 1; i < mNumKeyframes; ++i) {
-			FloatKeyframe nextKeyframe = (FloatKeyframe) mKeyframes.get(i);
-			if (fraction < nextKeyframe.getFraction()) {
-				final/* Time */Interpolator interpolator = nextKeyframe.getInterpolator();
-				if (interpolator != null) {
-					fraction = interpolator.getInterpolation(fraction);
-				}
-				float intervalFraction = (fraction - prevKeyframe.getFraction()) / (nextKeyframe.getFraction() - prevKeyframe.getFraction());
-				float prevValue = prevKeyframe.getFloatValue();
-				float nextValue = nextKeyframe.getFloatValue();
-				return mEvaluator == null ? prevValue + intervalFraction * (nextValue - prevValue) : ((Number) mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).floatValue();
-			}
-			prevKeyframe = nextKeyframe;
+		final/* Time */Interpolator interpolator = interpolators[next];
+		if (interpolator != null) {
+			fraction = interpolator.getInterpolation(fraction);
 		}
-		// shouldn't get here
-		return ((Number) mKeyframes.get(mNumKeyframes - 1).getValue()).floatValue();
+		float prevFraction = fractions[next - 1];
+		float intervalFraction = (fraction - prevFraction) / (fractions[next] - prevFraction);
+		float prevValue = values[next - 1];
+		float nextValue = values[next];
+		return mEvaluator == null ? prevValue + intervalFraction * (nextValue - prevValue) : ((Number) mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).floatValue();
 	}
 
 }
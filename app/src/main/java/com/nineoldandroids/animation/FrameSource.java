@@ -0,0 +1,38 @@
+package com.nineoldandroids.animation;
+
+/**
+ * Source of the timing pulse and clock of the animations run on one thread, see
+ * {@link ValueAnimator#setFrameSource(FrameSource)}. A source serves a single callback
+ * and holds at most one frame request at a time.
+ */
+public interface FrameSource {
+
+	/**
+	 * Receives the frames requested with {@link FrameSource#postFrame(Callback, long)}.
+	 */
+	public interface Callback {
+		/**
+		 * @param frameTimeMillis
+		 *            time of the frame, in the time base of {@link FrameSource#currentTimeMillis()}
+		 */
+		void doFrame(long frameTimeMillis);
+	}
+
+	/**
+	 * @return current animation time in ms
+	 */
+	long currentTimeMillis();
+
+	/**
+	 * Requests one call of the callback on the next frame.
+	 * 
+	 * @param lastFrameTime
+	 *            time of the frame just processed, the next frame is paced from it
+	 */
+	void postFrame(Callback callback, long lastFrameTime);
+
+	/**
+	 * Cancels a frame requested for the callback, if any.
+	 */
+	void removeFrame(Callback callback);
+}
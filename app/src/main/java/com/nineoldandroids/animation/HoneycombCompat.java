@@ -0,0 +1,189 @@
+package com.nineoldandroids.animation;
+
+import android.annotation.TargetApi;
+import android.view.View;
+import com.nineoldandroids.util.FloatProperty;
+import com.nineoldandroids.util.IntProperty;
+import com.nineoldandroids.util.Property;
+
+/**
+ * Properties calling the View setters added in Honeycomb directly, registered by
+ * ObjectAnimator on devices that do not need the AnimatorProxy.
+ */
+@TargetApi(11)
+final class HoneycombCompat {
+    static Property<View, Float> ALPHA = new FloatProperty<View>("alpha") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setAlpha(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getAlpha();
+        }
+    };
+    static Property<View, Float> PIVOT_X = new FloatProperty<View>("pivotX") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setPivotX(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getPivotX();
+        }
+    };
+    static Property<View, Float> PIVOT_Y = new FloatProperty<View>("pivotY") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setPivotY(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getPivotY();
+        }
+    };
+    static Property<View, Float> TRANSLATION_X = new FloatProperty<View>("translationX") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setTranslationX(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getTranslationX();
+        }
+    };
+    static Property<View, Float> TRANSLATION_Y = new FloatProperty<View>("translationY") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setTranslationY(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getTranslationY();
+        }
+    };
+    static Property<View, Float> ROTATION = new FloatProperty<View>("rotation") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setRotation(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getRotation();
+        }
+    };
+    static Property<View, Float> ROTATION_X = new FloatProperty<View>("rotationX") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setRotationX(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getRotationX();
+        }
+    };
+    static Property<View, Float> ROTATION_Y = new FloatProperty<View>("rotationY") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setRotationY(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getRotationY();
+        }
+    };
+    static Property<View, Float> SCALE_X = new FloatProperty<View>("scaleX") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setScaleX(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getScaleX();
+        }
+    };
+    static Property<View, Float> SCALE_Y = new FloatProperty<View>("scaleY") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setScaleY(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getScaleY();
+        }
+    };
+    static Property<View, Float> X = new FloatProperty<View>("x") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setX(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getX();
+        }
+    };
+    static Property<View, Float> Y = new FloatProperty<View>("y") {
+        @Override
+        public void setValue(View object, float value) {
+            object.setY(value);
+        }
+
+        @Override
+        public Float get(View object) {
+            return object.getY();
+        }
+    };
+    static Property<View, Integer> SCROLL_X = new IntProperty<View>("scrollX") {
+        @Override
+        public void setValue(View object, int value) {
+            object.scrollTo(value, object.getScrollY());
+        }
+
+        @Override
+        public Integer get(View object) {
+            return object.getScrollX();
+        }
+    };
+    static Property<View, Integer> SCROLL_Y = new IntProperty<View>("scrollY") {
+        @Override
+        public void setValue(View object, int value) {
+            object.scrollTo(object.getScrollX(), value);
+        }
+
+        @Override
+        public Integer get(View object) {
+            return object.getScrollY();
+        }
+    };
+
+    static void register() {
+        PropertyValuesHolder.registerProperty(View.class, ALPHA);
+        PropertyValuesHolder.registerProperty(View.class, PIVOT_X);
+        PropertyValuesHolder.registerProperty(View.class, PIVOT_Y);
+        PropertyValuesHolder.registerProperty(View.class, TRANSLATION_X);
+        PropertyValuesHolder.registerProperty(View.class, TRANSLATION_Y);
+        PropertyValuesHolder.registerProperty(View.class, ROTATION);
+        PropertyValuesHolder.registerProperty(View.class, ROTATION_X);
+        PropertyValuesHolder.registerProperty(View.class, ROTATION_Y);
+        PropertyValuesHolder.registerProperty(View.class, SCALE_X);
+        PropertyValuesHolder.registerProperty(View.class, SCALE_Y);
+        PropertyValuesHolder.registerProperty(View.class, SCROLL_X);
+        PropertyValuesHolder.registerProperty(View.class, SCROLL_Y);
+        PropertyValuesHolder.registerProperty(View.class, X);
+        PropertyValuesHolder.registerProperty(View.class, Y);
+    }
+
+    //No instances
+    private HoneycombCompat() {}
+}
@@ -33,9 +33,13 @@ import java.util.ArrayList;
  * Object equivalents of these primitive types.</p>
  */
 class IntKeyframeSet extends KeyframeSet {
-    private int firstValue;
-    private int lastValue;
+    // parallel arrays of the keyframes, filled on the first getIntValue()
+    private float[] fractions;
+    private int[] values;
+    private /*Time*/Interpolator[] interpolators;
     private int deltaValue;
+    // interval found by the last lookup, see findInterval()
+    private int lastInterval = 1;
     private boolean firstTime = true;
 
     public IntKeyframeSet(IntKeyframe... keyframes) {
@@ -59,77 +63,66 @@ class IntKeyframeSet extends KeyframeSet {
         return newSet;
     }
 
+    @Override
+    void invalidateValues() {
+        firstTime = true;
+    }
+
+    private void cacheKeyframes() {
+        int numKeyframes = mNumKeyframes;
+        if (fractions == null) {
+            fractions = new float[numKeyframes];
+            values = new int[numKeyframes];
+            interpolators = new Interpolator[numKeyframes];
+        }
+        for (int i = 0; i < numKeyframes; ++i) {
+            IntKeyframe keyframe = (IntKeyframe) mKeyframes.get(i);
+            fractions[i] = keyframe.getFraction();
+            values[i] = keyframe.getIntValue();
+            interpolators[i] = keyframe.getInterpolator();
+        }
+        deltaValue = values[numKeyframes - 1] - values[0];
+    }
+
     public int getIntValue(float fraction) {
+        if (firstTime) {
+            firstTime = false;
+            cacheKeyframes();
+        }
         if (mNumKeyframes == 2) {
-            if (firstTime) {
-                firstTime = false;
-                firstValue = ((IntKeyframe) mKeyframes.get(0)).getIntValue();
-                lastValue = ((IntKeyframe) mKeyframes.get(1)).getIntValue();
-                deltaValue = lastValue - firstValue;
-            }
             if (mInterpolator != null) {
                 fraction = mInterpolator.getInterpolation(fraction);
             }
             if (mEvaluator == null) {
-                return firstValue + (int)(fraction * deltaValue);
+                return values[0] + (int)(fraction * deltaValue);
             } else {
-                return ((Number)mEvaluator.evaluate(fraction, firstValue, lastValue)).intValue();
+                return ((Number)mEvaluator.evaluate(fraction, values[0], values[1])).intValue();
             }
         }
+        int next;
         if (fraction <= 0f) {
-            final IntKeyframe prevKeyframe = (IntKeyframe) mKeyframes.get(0);
-            final IntKeyframe nextKeyframe = (IntKeyframe) mKeyframes.get(1);
-            int prevValue = prevKeyframe.getIntValue();
-            int nextValue = nextKeyframe.getIntValue();
-            float prevFraction = prevKeyframe.getFraction();
-            float nextFraction = nextKeyframe.getFraction();
-            final /*Time*/Interpolator interpolator = nextKeyframe.getInterpolator();
-            if (interpolator != null) {
-                fraction = interpolator.getInterpolation(fraction);
-            }
-            float intervalFraction = (fraction - prevFraction) / (nextFraction - prevFraction);
-            return mEvaluator == null ?
-                    prevValue + (int)(intervalFraction * (nextValue - prevValue)) :
-                    ((Number)mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).
-                            intValue();
+            next = 1;
         } else if (fraction >= 1f) {
-            final IntKeyframe prevKeyframe = (IntKeyframe) mKeyframes.get(mNumKeyframes - 2);
-            final IntKeyframe nextKeyframe = (IntKeyframe) mKeyframes.get(mNumKeyframes - 1);
-            int prevValue = prevKeyframe.getIntValue();
-            int nextValue = nextKeyframe.getIntValue();
-            float prevFraction = prevKeyframe.getFraction();
-            float nextFraction = nextKeyframe.getFraction();
-            final /*Time*/Interpolator interpolator = nextKeyframe.getInterpolator();
-            if (interpolator != null) {
-                fraction = interpolator.getInterpolation(fraction);
+            next = mNumKeyframes - 1;
+        } else {
+            next = findInterval(fractions, fraction, lastInterval);
+            if (next == mNumKeyframes) {
+                // shouldn't get here
+                return values[mNumKeyframes - 1];
             }
-            float intervalFraction = (fraction - prevFraction) / (nextFraction - prevFraction);
-            return mEvaluator == null ?
-                    prevValue + (int)(intervalFraction * (nextValue - prevValue)) :
-                    ((Number)mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).intValue();
+            lastInterval = next;
         }
-        IntKeyframe prevKeyframe = (IntKeyframe) mKeyframes.get(0);
-        for (int i = 1; i < mNumKeyframes; ++i) {
-            IntKeyframe nextKeyframe = (IntKeyframe) mKeyframes.get(i);
-            if (fraction < nextKeyframe.getFraction()) {
-                final /*Time*/Interpolator interpolator = nextKeyframe.getInterpolator();
-                if (interpolator != null) {
-                    fraction = interpolator.getInterpolation(fraction);
-                }
-                float intervalFraction = (fraction - prevKeyframe.getFraction()) /
-                    (nextKeyframe.getFraction() - prevKeyframe.getFraction());
-                int prevValue = prevKeyframe.getIntValue();
-                int nextValue = nextKeyframe.getIntValue();
-                return mEvaluator == null ?
-                        prevValue + (int)(intervalFraction * (nextValue - prevValue)) :
-                        ((Number)mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).
-                                intValue();
-            }
-            prevKeyframe = nextKeyframe;
+        final /*Time*/Interpolator interpolator = interpolators[next];
+        if (interpolator != null) {
+            fraction = interpolator.getInterpolation(fraction);
         }
-        // shouldn't get here
-        return ((Number)mKeyframes.get(mNumKeyframes - 1).getValue()).intValue();
+        float prevFraction = fractions[next - 1];
+        float intervalFraction = (fraction - prevFraction) / (fractions[next] - prevFraction);
+        int prevValue = values[next - 1];
+        int nextValue = values[next];
+        return mEvaluator == null ?
+                prevValue + (int)(intervalFraction * (nextValue - prevValue)) :
+                ((Number)mEvaluator.evaluate(intervalFraction, prevValue, nextValue)).intValue();
     }
 
 }
-
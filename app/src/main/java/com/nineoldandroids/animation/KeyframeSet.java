@@ -107,6 +107,47 @@ class KeyframeSet {
 		mEvaluator = evaluator;
 	}
 
+	/**
+	 * Called after values of the keyframes were changed, so that subclasses caching
+	 * them can read them again.
+	 */
+	void invalidateValues() {
+	}
+
+	/**
+	 * Finds the keyframe interval holding a fraction between 0 and 1. The interval of the
+	 * previous lookup and the one after it are checked first, since animations mostly play
+	 * monotonically, then a binary search is used.
+	 * 
+	 * @param fractions
+	 *            fractions of the keyframes, in ascending order
+	 * @param hint
+	 *            result of the previous lookup
+	 * @return index of the first keyframe past the fraction, or the number of keyframes when
+	 *         the fraction is past the last keyframe
+	 */
+	static int findInterval(float[] fractions, float fraction, int hint) {
+		int count = fractions.length;
+		if (hint < count && fraction < fractions[hint]) {
+			if (hint == 1 || fraction >= fractions[hint - 1]) {
+				return hint;
+			}
+		} else if (hint + 1 < count && fraction < fractions[hint + 1]) {
+			return hint + 1;
+		}
+		int low = 1;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (fractions[mid] > fraction) {
+				high = mid - 1;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+
 	@Override
 	public KeyframeSet clone() {
 		ArrayList<Keyframe> keyframes = mKeyframes;
@@ -55,6 +55,10 @@ public final class ObjectAnimator extends ValueAnimator {
 		PROXY_PROPERTIES.put("scrollY", PreHoneycombCompat.SCROLL_Y);
 		PROXY_PROPERTIES.put("x", PreHoneycombCompat.X);
 		PROXY_PROPERTIES.put("y", PreHoneycombCompat.Y);
+		// on newer devices the same names map to the View setters, saving reflection on every frame
+		if (!AnimatorProxy.NEEDS_PROXY) {
+			HoneycombCompat.register();
+		}
 	}
 
 	// The target object on which the property exists, set in the constructor
@@ -202,6 +206,27 @@ public final class ObjectAnimator extends ValueAnimator {
 		return anim;
 	}
 
+	/**
+	 * Constructs and returns an ObjectAnimator that animates between int values. A single
+	 * value implies that that value is the one being animated to. Two values imply a starting
+	 * and ending values. More than two values imply a starting value, values to animate through
+	 * along the way, and an ending value (these values will be distributed evenly across
+	 * the duration of the animation).
+	 * 
+	 * @param target
+	 *            The object whose property is to be animated.
+	 * @param property
+	 *            The property being animated.
+	 * @param values
+	 *            A set of values that the animation will animate between over time.
+	 * @return An ObjectAnimator object that is set up to animate between the given values.
+	 */
+	public static <T> ObjectAnimator ofInt(T target, Property<T, Integer> property, int... values) {
+		ObjectAnimator anim = new ObjectAnimator(target, property);
+		anim.setIntValues(values);
+		return anim;
+	}
+
 	@Override
 	public void setIntValues(int... values) {
 		if (mValues == null || mValues.length == 0) {
@@ -100,6 +100,11 @@ public class PropertyValuesHolder implements Cloneable {
 	// at a time.
 	final ReentrantReadWriteLock mPropertyMapLock = new ReentrantReadWriteLock();
 
+	// Properties registered with registerProperty() by target class and property name. They
+	// take the place of reflected setters and getters.
+	private static final HashMap<Class, HashMap<String, Property>> sRegisteredPropertyMap = new HashMap<Class, HashMap<String, Property>>();
+	private static final ReentrantReadWriteLock sRegisteredPropertyLock = new ReentrantReadWriteLock();
+
 	// Used to pass single value to varargs parameter in setter invocation
 	final Object[] mTmpValueArray = new Object[1];
 
@@ -462,16 +467,23 @@ public class PropertyValuesHolder implements Cloneable {
 	 *            The object on which the setter (and possibly getter) exist.
 	 */
 	void setupSetterAndGetter(Object target) {
+		if (mProperty == null && mSetter == null) {
+			Property property = findRegisteredProperty(target.getClass(), mPropertyName);
+			if (property != null && canUseProperty(property)) {
+				setProperty(property);
+			}
+		}
 		if (mProperty != null) {
 			try {// check to make sure that mProperty is on the class of target
 				Object testValue = mProperty.get(target);
 				for (Keyframe kf : mKeyframeSet.mKeyframes)
 					if (!kf.hasValue())
 						kf.setValue(mProperty.get(target));
+				mKeyframeSet.invalidateValues();
 				return;
 			} catch (ClassCastException e) {
 				Log.e("PropertyValuesHolder", "No such property (" + mProperty.getName() + ") on target object " + target + ". Trying reflection instead");
-				mProperty = null;
+				setProperty(null);
 			}
 		}
 		Class<?> targetClass = target.getClass();
@@ -491,6 +503,7 @@ public class PropertyValuesHolder implements Cloneable {
 				}
 			}
 		}
+		mKeyframeSet.invalidateValues();
 	}
 
 	/**
@@ -517,6 +530,7 @@ public class PropertyValuesHolder implements Cloneable {
 		} catch (IllegalAccessException e) {
 			Log.e("PropertyValuesHolder", e.toString());
 		}
+		mKeyframeSet.invalidateValues();
 	}
 
 	/**
@@ -662,6 +676,57 @@ public class PropertyValuesHolder implements Cloneable {
 		mProperty = property;
 	}
 
+	/**
+	 * Registers a property to be used instead of reflection when a PropertyValuesHolder with the
+	 * name of the property animates an instance of the target class or of its subclasses. Use
+	 * {@link FloatProperty} or {@link IntProperty} for float and int values, which lets
+	 * animation frames set the values without reflection and autoboxing.
+	 * 
+	 * @param targetClass
+	 *            The class on which the property is declared.
+	 * @param property
+	 *            The property, replacing any property registered with the same name for the class.
+	 */
+	public static void registerProperty(Class<?> targetClass, Property<?, ?> property) {
+		try {
+			sRegisteredPropertyLock.writeLock().lock();
+			HashMap<String, Property> propertyMap = sRegisteredPropertyMap.get(targetClass);
+			if (propertyMap == null) {
+				propertyMap = new HashMap<String, Property>();
+				sRegisteredPropertyMap.put(targetClass, propertyMap);
+			}
+			propertyMap.put(property.getName(), property);
+		} finally {
+			sRegisteredPropertyLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the property registered for the class or its closest superclass, or null
+	 */
+	static Property findRegisteredProperty(Class targetClass, String propertyName) {
+		try {
+			sRegisteredPropertyLock.readLock().lock();
+			for (Class c = targetClass; c != null; c = c.getSuperclass()) {
+				HashMap<String, Property> propertyMap = sRegisteredPropertyMap.get(c);
+				Property property = propertyMap != null ? propertyMap.get(propertyName) : null;
+				if (property != null) {
+					return property;
+				}
+			}
+			return null;
+		} finally {
+			sRegisteredPropertyLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return whether a registered property can take the values of this holder
+	 */
+	boolean canUseProperty(Property property) {
+		return property.getType() == mValueType;
+	}
+
 	/**
 	 * Gets the name of the property that will be animated. This name will be used to derive
 	 * a setter function that will be called to set animated values.
@@ -738,6 +803,17 @@ public class PropertyValuesHolder implements Cloneable {
 			}
 		}
 
+		@Override
+		public void setProperty(Property property) {
+			super.setProperty(property);
+			mIntProperty = property instanceof IntProperty ? (IntProperty) property : null;
+		}
+
+		@Override
+		boolean canUseProperty(Property property) {
+			return property instanceof IntProperty;
+		}
+
 		@Override
 		public void setIntValues(int... values) {
 			super.setIntValues(values);
@@ -860,6 +936,17 @@ public class PropertyValuesHolder implements Cloneable {
 			}
 		}
 
+		@Override
+		public void setProperty(Property property) {
+			super.setProperty(property);
+			mFloatProperty = property instanceof FloatProperty ? (FloatProperty) property : null;
+		}
+
+		@Override
+		boolean canUseProperty(Property property) {
+			return property instanceof FloatProperty;
+		}
+
 		@Override
 		public void setFloatValues(float... values) {
 			super.setFloatValues(values);
@@ -16,10 +16,13 @@
 
 package com.nineoldandroids.animation;
 
+import android.annotation.TargetApi;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.util.AndroidRuntimeException;
+import android.view.Choreographer;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
@@ -34,6 +37,7 @@ import java.util.HashMap;
  * 
  * <p>
  * There is a single timing pulse that all animations use. It runs in a custom handler to ensure that property changes happen on the UI thread.
+ * The pulse comes from a {@link FrameSource}, which is aligned to the display refresh on API 16 and newer.
  * </p>
  * 
  * <p>
@@ -53,11 +57,10 @@ public class ValueAnimator extends Animator {
 	private static final long DEFAULT_FRAME_DELAY = 10;
 
 	/**
-	 * Messages sent to timing handler: START is sent when an animation first begins, FRAME is sent
-	 * by the handler to itself to process the next animation frame
+	 * Message sent to timing handler when an animation first begins, the following frames
+	 * are requested from the FrameSource of the thread
 	 */
 	static final int ANIMATION_START = 0;
-	static final int ANIMATION_FRAME = 1;
 
 	/**
 	 * Values used with internal variable mPlayingState to indicate the current state of an
@@ -85,53 +88,52 @@ public class ValueAnimator extends Animator {
 	 */
 	long mSeekTime = -1;
 
-	// TODO: We access the following ThreadLocal variables often, some of them on every update.
-	// If ThreadLocal access is significantly expensive, we may want to put all of these
-	// fields into a structure sot hat we just access ThreadLocal once to get the reference
-	// to that structure, then access the structure directly for each field.
+	// Slots of this animation in the AnimationQueues of the animation loop, -1 when not queued
+	int[] mQueueSlots = AnimationQueue.newSlots();
 
-	// The static sAnimationHandler processes the internal timing loop on which all animations
-	// are based
-	private static ThreadLocal<AnimationHandler> sAnimationHandler = new ThreadLocal<AnimationHandler>();
+	/**
+	 * Per-thread state of the animation loop. All of it lives in one structure so the
+	 * ThreadLocal is accessed once per operation, and not at all while processing frames.
+	 */
+	private static final class AnimationContext {
+		// All active animations
+		final AnimationQueue animations = new AnimationQueue(AnimationQueue.ACTIVE);
 
-	// The per-thread list of all active animations
-	private static final ThreadLocal<ArrayList<ValueAnimator>> sAnimations = new ThreadLocal<ArrayList<ValueAnimator>>() {
-		@Override
-		protected ArrayList<ValueAnimator> initialValue() {
-			return new ArrayList<ValueAnimator>();
-		}
-	};
+		// Animations to be started on the next animation frame
+		final AnimationQueue pendingAnimations = new AnimationQueue(AnimationQueue.PENDING);
 
-	// The per-thread set of animations to be started on the next animation frame
-	private static final ThreadLocal<ArrayList<ValueAnimator>> sPendingAnimations = new ThreadLocal<ArrayList<ValueAnimator>>() {
-		@Override
-		protected ArrayList<ValueAnimator> initialValue() {
-			return new ArrayList<ValueAnimator>();
-		}
-	};
+		// Animations waiting for their start delay to pass
+		final AnimationQueue delayedAnims = new AnimationQueue(AnimationQueue.DELAYED);
 
-	/**
-	 * Internal per-thread collections used to avoid set collisions as animations start and end
-	 * while being processed.
-	 */
-	private static final ThreadLocal<ArrayList<ValueAnimator>> sDelayedAnims = new ThreadLocal<ArrayList<ValueAnimator>>() {
-		@Override
-		protected ArrayList<ValueAnimator> initialValue() {
-			return new ArrayList<ValueAnimator>();
+		// Animations that finished in the current frame
+		final AnimationQueue endingAnims = new AnimationQueue(AnimationQueue.ENDING);
+
+		// Processes the internal timing loop on which all animations are based, created on
+		// the first start
+		AnimationHandler handler;
+
+		// Set while an ANIMATION_START message is queued, which starts all pending animations
+		boolean startRequested;
+
+		// Drives the timing loop, set with setFrameSource() or created on the first frame
+		FrameSource frameSource;
+
+		FrameSource getFrameSource() {
+			if (frameSource == null) {
+				frameSource = Build.VERSION.SDK_INT >= 16 ? new ChoreographerFrameSource() : new HandlerFrameSource();
+			}
+			return frameSource;
 		}
-	};
 
-	private static final ThreadLocal<ArrayList<ValueAnimator>> sEndingAnims = new ThreadLocal<ArrayList<ValueAnimator>>() {
-		@Override
-		protected ArrayList<ValueAnimator> initialValue() {
-			return new ArrayList<ValueAnimator>();
+		long currentTimeMillis() {
+			return frameSource != null ? frameSource.currentTimeMillis() : AnimationUtils.currentAnimationTimeMillis();
 		}
-	};
+	}
 
-	private static final ThreadLocal<ArrayList<ValueAnimator>> sReadyAnims = new ThreadLocal<ArrayList<ValueAnimator>>() {
+	private static final ThreadLocal<AnimationContext> sAnimationContext = new ThreadLocal<AnimationContext>() {
 		@Override
-		protected ArrayList<ValueAnimator> initialValue() {
-			return new ArrayList<ValueAnimator>();
+		protected AnimationContext initialValue() {
+			return new AnimationContext();
 		}
 	};
 
@@ -212,7 +214,7 @@ public class ValueAnimator extends Animator {
 	// The amount of time in ms to delay starting the animation after start() is called
 	private long mStartDelay = 0;
 
-	// The number of milliseconds between animation frames
+	// The number of milliseconds between animation frames posted through a Handler
 	private static long sFrameDelay = DEFAULT_FRAME_DELAY;
 
 	// The number of times the animation will repeat. The default is 0, which means the animation
@@ -481,7 +483,7 @@ public class ValueAnimator extends Animator {
 	 */
 	public void setCurrentPlayTime(long playTime) {
 		initAnimation();
-		long currentTime = AnimationUtils.currentAnimationTimeMillis();
+		long currentTime = sAnimationContext.get().currentTimeMillis();
 		if (mPlayingState != RUNNING) {
 			mSeekTime = playTime;
 			mPlayingState = SEEKED;
@@ -501,7 +503,7 @@ public class ValueAnimator extends Animator {
 		if (!mInitialized || mPlayingState == STOPPED) {
 			return 0;
 		}
-		return AnimationUtils.currentAnimationTimeMillis() - mStartTime;
+		return sAnimationContext.get().currentTimeMillis() - mStartTime;
 	}
 
 	/**
@@ -512,115 +514,218 @@ public class ValueAnimator extends Animator {
 	 * animations possible.
 	 * 
 	 */
-	private static class AnimationHandler extends Handler {
+	private static class AnimationHandler extends Handler implements FrameSource.Callback {
+
+		private final AnimationContext mContext;
+
+		AnimationHandler(AnimationContext context) {
+			mContext = context;
+		}
+
 		/**
-		 * There are only two messages that we care about: ANIMATION_START and
-		 * ANIMATION_FRAME. The START message is sent when an animation's start()
-		 * method is called. It cannot start synchronously when start() is called
+		 * The only message that we care about is ANIMATION_START. It is sent when an animation's
+		 * start() method is called. It cannot start synchronously when start() is called
 		 * because the call may be on the wrong thread, and it would also not be
 		 * synchronized with other animations because it would not start on a common
 		 * timing pulse. So each animation sends a START message to the handler, which
 		 * causes the handler to place the animation on the active animations queue and
 		 * start processing frames for that animation.
-		 * The FRAME message is the one that is sent over and over while there are any
-		 * active animations to process.
+		 * The following frames are requested from the FrameSource over and over while there
+		 * are any active animations to process.
 		 */
 		@Override
 		public void handleMessage(Message msg) {
-			boolean callAgain = true;
-			ArrayList<ValueAnimator> animations = sAnimations.get();
-			ArrayList<ValueAnimator> delayedAnims = sDelayedAnims.get();
-			switch (msg.what) {
-			// TODO: should we avoid sending frame message when starting if we
-			// were already running?
-			case ANIMATION_START:
-				ArrayList<ValueAnimator> pendingAnimations = sPendingAnimations.get();
-				if (animations.size() > 0 || delayedAnims.size() > 0) {
-					callAgain = false;
-				}
-				// pendingAnims holds any animations that have requested to be started
-				// We're going to clear sPendingAnimations, but starting animation may
-				// cause more to be added to the pending list (for example, if one animation
-				// starting triggers another starting). So we loop until sPendingAnimations
-				// is empty.
-				while (pendingAnimations.size() > 0) {
-					ArrayList<ValueAnimator> pendingCopy = (ArrayList<ValueAnimator>) pendingAnimations.clone();
-					pendingAnimations.clear();
-					int count = pendingCopy.size();
-					for (int i = 0; i < count; ++i) {
-						ValueAnimator anim = pendingCopy.get(i);
-						// If the animation has a startDelay, place it on the delayed list
-						if (anim.mStartDelay == 0) {
-							anim.startAnimation();
-						} else {
-							delayedAnims.add(anim);
-						}
-					}
+			if (msg.what != ANIMATION_START) {
+				return;
+			}
+			AnimationContext context = mContext;
+			context.startRequested = false;
+			AnimationQueue delayedAnims = context.delayedAnims;
+			// A frame is already requested if there are animations running
+			boolean callAgain = context.animations.isEmpty() && delayedAnims.isEmpty();
+			AnimationQueue pendingAnimations = context.pendingAnimations;
+			// pendingAnimations holds any animations that have requested to be started.
+			// Starting an animation may cause more to be added to the pending queue (for
+			// example, if one animation starting triggers another starting). They are
+			// appended behind the current slot, so the loop picks them up as well.
+			for (int i = 0; i < pendingAnimations.end(); ++i) {
+				ValueAnimator anim = pendingAnimations.get(i);
+				if (anim == null) {
+					continue;
 				}
-				// fall through to process first frame of new animations
-			case ANIMATION_FRAME:
-				// currentTime holds the common time for all animations processed
-				// during this frame
-				long currentTime = AnimationUtils.currentAnimationTimeMillis();
-				ArrayList<ValueAnimator> readyAnims = sReadyAnims.get();
-				ArrayList<ValueAnimator> endingAnims = sEndingAnims.get();
-
-				// First, process animations currently sitting on the delayed queue, adding
-				// them to the active animations if they are ready
-				int numDelayedAnims = delayedAnims.size();
-				for (int i = 0; i < numDelayedAnims; ++i) {
-					ValueAnimator anim = delayedAnims.get(i);
-					if (anim.delayedAnimationFrame(currentTime)) {
-						readyAnims.add(anim);
-					}
+				pendingAnimations.remove(anim);
+				// If the animation has a startDelay, place it on the delayed list
+				if (anim.mStartDelay == 0) {
+					anim.startAnimation();
+				} else {
+					delayedAnims.add(anim);
 				}
-				int numReadyAnims = readyAnims.size();
-				if (numReadyAnims > 0) {
-					for (int i = 0; i < numReadyAnims; ++i) {
-						ValueAnimator anim = readyAnims.get(i);
-						anim.startAnimation();
-						anim.mRunning = true;
-						delayedAnims.remove(anim);
-					}
-					readyAnims.clear();
+			}
+			pendingAnimations.clear();
+			// process first frame of new animations
+			doAnimationFrame(context.getFrameSource().currentTimeMillis(), callAgain);
+		}
+
+		@Override
+		public void doFrame(long frameTimeMillis) {
+			doAnimationFrame(frameTimeMillis, true);
+		}
+
+		/**
+		 * @param currentTime
+		 *            the common time for all animations processed during this frame
+		 */
+		private void doAnimationFrame(long currentTime, boolean callAgain) {
+			AnimationContext context = mContext;
+			AnimationQueue animations = context.animations;
+			AnimationQueue delayedAnims = context.delayedAnims;
+			AnimationQueue endingAnims = context.endingAnims;
+
+			// First, process animations currently sitting on the delayed queue, moving
+			// them to the active animations if they are ready
+			int numDelayedAnims = delayedAnims.end();
+			for (int i = 0; i < numDelayedAnims; ++i) {
+				ValueAnimator anim = delayedAnims.get(i);
+				if (anim != null && anim.delayedAnimationFrame(currentTime)) {
+					delayedAnims.remove(anim);
+					anim.startAnimation();
+					anim.mRunning = true;
 				}
+			}
 
-				// Now process all active animations. The return value from animationFrame()
-				// tells the handler whether it should now be ended
-				int numAnims = animations.size();
-				int i = 0;
-				while (i < numAnims) {
-					ValueAnimator anim = animations.get(i);
-					if (anim.animationFrame(currentTime)) {
-						endingAnims.add(anim);
-					}
-					if (animations.size() == numAnims) {
-						++i;
-					} else {
-						// An animation might be canceled or ended by client code
-						// during the animation frame. Check to see if this happened by
-						// seeing whether the current index is the same as it was before
-						// calling animationFrame(). Another approach would be to copy
-						// animations to a temporary list and process that list instead,
-						// but that entails garbage and processing overhead that would
-						// be nice to avoid.
-						--numAnims;
-						endingAnims.remove(anim);
-					}
+			// Now process all active animations. The return value from animationFrame()
+			// tells the handler whether it should now be ended. An animation might be
+			// canceled or ended by client code during the animation frame, which empties
+			// its slot instead of shifting the animations behind it, so neither a copy of
+			// the queue nor index bookkeeping is needed.
+			int numAnims = animations.end();
+			for (int i = 0; i < numAnims; ++i) {
+				ValueAnimator anim = animations.get(i);
+				if (anim != null && anim.animationFrame(currentTime) && animations.contains(anim)) {
+					endingAnims.add(anim);
 				}
-				if (endingAnims.size() > 0) {
-					for (i = 0; i < endingAnims.size(); ++i) {
-						endingAnims.get(i).endAnimation();
+			}
+			if (!endingAnims.isEmpty()) {
+				for (int i = 0; i < endingAnims.end(); ++i) {
+					ValueAnimator anim = endingAnims.get(i);
+					if (anim != null) {
+						anim.endAnimation();
 					}
-					endingAnims.clear();
 				}
+				endingAnims.clear();
+			}
+			animations.compact();
+			delayedAnims.compact();
 
-				// If there are still active or delayed animations, call the handler again
-				// after the frameDelay
-				if (callAgain && (!animations.isEmpty() || !delayedAnims.isEmpty())) {
-					sendEmptyMessageDelayed(ANIMATION_FRAME, Math.max(0, sFrameDelay - (AnimationUtils.currentAnimationTimeMillis() - currentTime)));
-				}
-				break;
+			// If there are still active or delayed animations, request the next frame
+			if (callAgain && (!animations.isEmpty() || !delayedAnims.isEmpty())) {
+				context.getFrameSource().postFrame(this, currentTime);
+			}
+		}
+	}
+
+	/**
+	 * Sets the source of the timing pulse for animations run on the calling thread. By default
+	 * frames follow the display refresh through Choreographer on API 16 and newer, and are
+	 * posted every 10 ms through a Handler on older versions.
+	 * 
+	 * @param source
+	 *            the new frame source, or null to go back to the default one
+	 */
+	public static void setFrameSource(FrameSource source) {
+		AnimationContext context = sAnimationContext.get();
+		AnimationHandler handler = context.handler;
+		if (context.frameSource != null && handler != null) {
+			context.frameSource.removeFrame(handler);
+		}
+		context.frameSource = source;
+		if (handler != null && (!context.animations.isEmpty() || !context.delayedAnims.isEmpty())) {
+			FrameSource newSource = context.getFrameSource();
+			newSource.postFrame(handler, newSource.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * @return number of animations on the active queue of the calling thread
+	 */
+	static int getCurrentAnimationsCount() {
+		return sAnimationContext.get().animations.size();
+	}
+
+	/**
+	 * Posts frames through a Handler every sFrameDelay ms.
+	 */
+	private static class HandlerFrameSource extends Handler implements FrameSource, Runnable {
+
+		private FrameSource.Callback mCallback;
+
+		@Override
+		public long currentTimeMillis() {
+			return AnimationUtils.currentAnimationTimeMillis();
+		}
+
+		@Override
+		public void postFrame(FrameSource.Callback callback, long lastFrameTime) {
+			mCallback = callback;
+			postDelayed(this, Math.max(0, sFrameDelay - (AnimationUtils.currentAnimationTimeMillis() - lastFrameTime)));
+		}
+
+		@Override
+		public void removeFrame(FrameSource.Callback callback) {
+			if (mCallback == callback) {
+				removeCallbacks(this);
+				mCallback = null;
+			}
+		}
+
+		@Override
+		public void run() {
+			FrameSource.Callback callback = mCallback;
+			mCallback = null;
+			if (callback != null) {
+				callback.doFrame(AnimationUtils.currentAnimationTimeMillis());
+			}
+		}
+	}
+
+	/**
+	 * Runs frames on the vsync pulse of the display.
+	 */
+	@TargetApi(16)
+	private static class ChoreographerFrameSource implements FrameSource, Choreographer.FrameCallback {
+
+		private final Choreographer mChoreographer = Choreographer.getInstance();
+		private FrameSource.Callback mCallback;
+		private long mLastFrameTime;
+
+		@Override
+		public long currentTimeMillis() {
+			return AnimationUtils.currentAnimationTimeMillis();
+		}
+
+		@Override
+		public void postFrame(FrameSource.Callback callback, long lastFrameTime) {
+			mCallback = callback;
+			mLastFrameTime = lastFrameTime;
+			mChoreographer.postFrameCallback(this);
+		}
+
+		@Override
+		public void removeFrame(FrameSource.Callback callback) {
+			if (mCallback == callback) {
+				mChoreographer.removeFrameCallback(this);
+				mCallback = null;
+			}
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			FrameSource.Callback callback = mCallback;
+			mCallback = null;
+			if (callback != null) {
+				// the vsync time may precede the time the previous frame was run at when
+				// that frame was the first one of a starting animation
+				callback.doFrame(Math.max(frameTimeNanos / 1000000, mLastFrameTime));
 			}
 		}
 	}
@@ -777,7 +882,8 @@ public class ValueAnimator extends Animator {
 		mPlayingState = STOPPED;
 		mStarted = true;
 		mStartedDelay = false;
-		sPendingAnimations.get().add(this);
+		AnimationContext context = sAnimationContext.get();
+		context.pendingAnimations.add(this);
 		if (mStartDelay == 0) {
 			// This sets the initial value of the animation, prior to actually starting it running
 			setCurrentPlayTime(getCurrentPlayTime());
@@ -792,12 +898,15 @@ public class ValueAnimator extends Animator {
 				}
 			}
 		}
-		AnimationHandler animationHandler = sAnimationHandler.get();
+		AnimationHandler animationHandler = context.handler;
 		if (animationHandler == null) {
-			animationHandler = new AnimationHandler();
-			sAnimationHandler.set(animationHandler);
+			animationHandler = new AnimationHandler(context);
+			context.handler = animationHandler;
+		}
+		if (!context.startRequested) {
+			context.startRequested = true;
+			animationHandler.sendEmptyMessage(ANIMATION_START);
 		}
-		animationHandler.sendEmptyMessage(ANIMATION_START);
 	}
 
 	@Override
@@ -809,7 +918,8 @@ public class ValueAnimator extends Animator {
 	public void cancel() {
 		// Only cancel if the animation is actually running or has been started and is about
 		// to run
-		if (mPlayingState != STOPPED || sPendingAnimations.get().contains(this) || sDelayedAnims.get().contains(this)) {
+		AnimationContext context = sAnimationContext.get();
+		if (mPlayingState != STOPPED || context.pendingAnimations.contains(this) || context.delayedAnims.contains(this)) {
 			// Only notify listeners if the animator has actually started
 			if (mRunning && mListeners != null) {
 				ArrayList<AnimatorListener> tmpListeners = (ArrayList<AnimatorListener>) mListeners.clone();
@@ -823,7 +933,8 @@ public class ValueAnimator extends Animator {
 
 	@Override
 	public void end() {
-		if (!sAnimations.get().contains(this) && !sPendingAnimations.get().contains(this)) {
+		AnimationContext context = sAnimationContext.get();
+		if (!context.animations.contains(this) && !context.pendingAnimations.contains(this)) {
 			// Special case if the animation has not yet started; get it ready for ending
 			mStartedDelay = false;
 			startAnimation();
@@ -860,7 +971,7 @@ public class ValueAnimator extends Animator {
 	public void reverse() {
 		mPlayingBackwards = !mPlayingBackwards;
 		if (mPlayingState == RUNNING) {
-			long currentTime = AnimationUtils.currentAnimationTimeMillis();
+			long currentTime = sAnimationContext.get().currentTimeMillis();
 			long currentPlayTime = currentTime - mStartTime;
 			long timeLeft = mDuration - currentPlayTime;
 			mStartTime = currentTime - timeLeft;
@@ -874,9 +985,11 @@ public class ValueAnimator extends Animator {
 	 * called on the UI thread.
 	 */
 	private void endAnimation() {
-		sAnimations.get().remove(this);
-		sPendingAnimations.get().remove(this);
-		sDelayedAnims.get().remove(this);
+		AnimationContext context = sAnimationContext.get();
+		context.animations.remove(this);
+		context.pendingAnimations.remove(this);
+		context.delayedAnims.remove(this);
+		context.endingAnims.remove(this);
 		mPlayingState = STOPPED;
 		if (mRunning && mListeners != null) {
 			ArrayList<AnimatorListener> tmpListeners = (ArrayList<AnimatorListener>) mListeners.clone();
@@ -895,7 +1008,7 @@ public class ValueAnimator extends Animator {
 	 */
 	private void startAnimation() {
 		initAnimation();
-		sAnimations.get().add(this);
+		sAnimationContext.get().animations.add(this);
 		if (mStartDelay > 0 && mListeners != null) {
 			// Listeners were already notified in start() if startDelay is 0; this is
 			// just for delayed animations
@@ -1044,6 +1157,7 @@ public class ValueAnimator extends Animator {
 			}
 		}
 		anim.mSeekTime = -1;
+		anim.mQueueSlots = AnimationQueue.newSlots();
 		anim.mPlayingBackwards = false;
 		anim.mCurrentIteration = 0;
 		anim.mInitialized = false;
@@ -3,6 +3,7 @@ package cz.chladek.android.preferences;
 import com.nineoldandroids.animation.ArgbEvaluator;
 import com.nineoldandroids.animation.ObjectAnimator;
 import com.nineoldandroids.animation.ValueAnimator;
+import com.nineoldandroids.util.IntProperty;
 
 import android.content.Context;
 import android.content.res.TypedArray;
@@ -13,6 +14,21 @@ import cz.chladek.swipe_status_bar.R;
 
 public class BlinkingPreference extends Preference {
 
+	// sets the animated color without reflection, passed to the animator only
+	// as View has no getter and other animators must not find it by name
+	private static final IntProperty<View> BACKGROUND_COLOR = new IntProperty<View>("backgroundColor") {
+		@Override
+		public void setValue(View view, int value) {
+			view.setBackgroundColor(value);
+		}
+
+		@Override
+		public Integer get(View view) {
+			// both colors are always given, the current one is never needed
+			return 0;
+		}
+	};
+
 	private ValueAnimator animator;
 	private int startColor, endColor, duration, repeatCount, delay;
 	private View view;
@@ -57,7 +73,7 @@ public class BlinkingPreference extends Preference {
 	protected void onBindView(View view) {
 		super.onBindView(view);
 		if (this.view != view) {
-			animator = ObjectAnimator.ofInt(view, "backgroundColor", startColor, endColor);
+			animator = ObjectAnimator.ofInt(view, BACKGROUND_COLOR, startColor, endColor);
 			animator.setDuration(duration);
 			animator.setEvaluator(new ArgbEvaluator());
 			animator.setRepeatCount(repeatCount);
@@ -0,0 +1,199 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Vibrator;
+import android.util.Log;
+
+/**
+ * Runs the actions of a recognized swipe outside of the touch callback.
+ * Vibration, the desktop overrides and the expansion are binder calls and run
+ * in order on a worker thread, only the window operations are posted to the
+ * main thread. The window stage runs first and hands the expansion to the
+ * worker, so a window is always attached before the panel it watches opens.
+ * The time spent in each stage is recorded.
+ * <p>
+ * The dispatcher also moves {@link ServiceState} from ARMED to EXPANDING and
+ * back. Every way out of an expansion, a failed stage, a restore or dispose(),
+ * ends in the restore stage, which returns the state to ARMED.
+ */
+public class ActionDispatcher implements Handler.Callback {
+
+	public interface Target {
+		/**
+		 * called on the main thread
+		 * 
+		 * @return false to drop the expansion, the restore stage follows
+		 */
+		boolean onWindowStage(int mode);
+
+		/** called on the worker thread after the window stage and the vibration */
+		void onExpandStage(int mode, long dispatchTime);
+
+		/**
+		 * called on the worker thread, or on the thread calling dispose(), it
+		 * may run twice when an expansion overlaps dispose()
+		 */
+		void onRestoreStage();
+	}
+
+	private static final String TAG = "ActionDispatcher";
+
+	public static final int PATH_ACTIVITY = 0;
+	public static final int PATH_WINDOW = 1;
+	public static final int PATH_ALTERNATIVE = 2;
+
+	private static final int MSG_WINDOW = 1;
+	private static final int MSG_DISPATCH = 2;
+	private static final int MSG_RESTORE = 3;
+
+	private final Target target;
+	private final Vibrator vibrator;
+	private final HandlerThread thread;
+	private final Handler worker, main;
+	private volatile boolean disposed;
+
+	private final LatencyHistogram queueLatency = new LatencyHistogram("queue wait");
+	private final LatencyHistogram vibrateLatency = new LatencyHistogram("vibrate");
+	private final LatencyHistogram expandLatency = new LatencyHistogram("expand");
+	private final LatencyHistogram windowLatency = new LatencyHistogram("window");
+	private final LatencyHistogram restoreLatency = new LatencyHistogram("restore");
+	private final LatencyHistogram[] expansionLatency = { new LatencyHistogram("swipe to expansion, helper activity"),
+			new LatencyHistogram("swipe to expansion, expansion window"), new LatencyHistogram("swipe to expansion, alternative mode") };
+
+	public ActionDispatcher(Vibrator vibrator, Target target) {
+		this.vibrator = vibrator;
+		this.target = target;
+		thread = new HandlerThread("ActionDispatcher");
+		thread.start();
+		worker = new Handler(thread.getLooper(), this);
+		main = new Handler(Looper.getMainLooper(), this);
+	}
+
+	/**
+	 * @param vibrate vibration length in ms, 0 for none
+	 */
+	public void dispatch(int mode, int vibrate) {
+		ServiceState.compareAndSet(ServiceState.ARMED, ServiceState.EXPANDING);
+		main.sendMessage(main.obtainMessage(MSG_WINDOW, mode, vibrate, Long.valueOf(System.nanoTime())));
+	}
+
+	/**
+	 * Records the time from a dispatch until the expansion was requested.
+	 * 
+	 * @param path one of the PATH_* constants
+	 */
+	public void recordExpansion(int path, long dispatchTime) {
+		expansionLatency[path].record(System.nanoTime() - dispatchTime);
+	}
+
+	/**
+	 * @return looper of the worker thread
+	 */
+	Looper getLooper() {
+		return thread.getLooper();
+	}
+
+	public void restore() {
+		worker.sendEmptyMessage(MSG_RESTORE);
+	}
+
+	/**
+	 * Stops the worker without waiting for it, messages still queued are
+	 * dropped. An expansion still pending, whose stages were dropped or never
+	 * asked for a restore, is restored on the calling thread. An expand stage
+	 * the worker is running meanwhile is restored by the worker once it
+	 * returns.
+	 */
+	public void dispose() {
+		disposed = true;
+		main.removeMessages(MSG_WINDOW);
+		thread.quit();
+		if (ServiceState.getState() == ServiceState.EXPANDING)
+			restoreStage();
+	}
+
+	private void restoreStage() {
+		boolean expanded = ServiceState.compareAndSet(ServiceState.EXPANDING, ServiceState.RESTORING);
+		try {
+			target.onRestoreStage();
+		} finally {
+			if (expanded)
+				ServiceState.compareAndSet(ServiceState.RESTORING, ServiceState.ARMED);
+		}
+	}
+
+	@Override
+	public boolean handleMessage(Message msg) {
+		if (disposed)
+			return true;
+		long start = System.nanoTime();
+		switch (msg.what) {
+		case MSG_WINDOW:
+			boolean expand = target.onWindowStage(msg.arg1);
+			windowLatency.record(System.nanoTime() - start);
+			if (expand)
+				worker.sendMessage(worker.obtainMessage(MSG_DISPATCH, msg.arg1, msg.arg2, msg.obj));
+			else
+				restore();
+			break;
+		case MSG_DISPATCH:
+			long dispatchTime = (Long) msg.obj;
+			queueLatency.record(start - dispatchTime);
+			if (msg.arg2 > 0) {
+				vibrator.vibrate(msg.arg2);
+				long vibrated = System.nanoTime();
+				vibrateLatency.record(vibrated - start);
+				start = vibrated;
+			}
+			try {
+				target.onExpandStage(msg.arg1, dispatchTime);
+			} catch (RuntimeException e) {
+				// nothing was expanded that could ask for the restore
+				Log.w(TAG, "Expansion failed", e);
+				restoreStage();
+				break;
+			}
+			expandLatency.record(System.nanoTime() - start);
+			// dispose() ran during the expansion and may have restored before it
+			if (disposed)
+				restoreStage();
+			break;
+		case MSG_RESTORE:
+			restoreStage();
+			restoreLatency.record(System.nanoTime() - start);
+			break;
+		default:
+			return false;
+		}
+		return true;
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Action dispatch:\n");
+		queueLatency.appendTo(sb);
+		vibrateLatency.appendTo(sb);
+		expandLatency.appendTo(sb);
+		windowLatency.appendTo(sb);
+		restoreLatency.appendTo(sb);
+		for (LatencyHistogram histogram : expansionLatency)
+			histogram.appendTo(sb);
+	}
+}
@@ -0,0 +1,114 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.graphics.PixelFormat;
+import android.view.View;
+import android.view.WindowManager;
+import android.view.WindowManager.LayoutParams;
+
+/**
+ * Zero sized window of the alternative mode noticing the first touch or key
+ * after an expansion. It is attached idle while the mode is enabled, idle it is
+ * neither focusable nor touchable and leaves fullscreen apps alone, arming it
+ * only updates its flags. Windows are added again only when an update fails,
+ * those fallbacks are counted.
+ */
+public class AlternativeWindow {
+
+	private static final int IDLE_FLAGS = LayoutParams.FLAG_NOT_FOCUSABLE | LayoutParams.FLAG_NOT_TOUCHABLE;
+	private static final int ARMED_FLAGS = LayoutParams.FLAG_FORCE_NOT_FULLSCREEN | LayoutParams.FLAG_WATCH_OUTSIDE_TOUCH | LayoutParams.FLAG_NOT_TOUCH_MODAL;
+
+	private final WindowManager windowManager;
+	private final View view;
+	private final LayoutParams params;
+	private boolean attached, armed;
+	private int adds, removes, updates, failures;
+
+	public AlternativeWindow(WindowManager windowManager, View view) {
+		this.windowManager = windowManager;
+		this.view = view;
+		params = new LayoutParams(0, 0, LayoutParams.TYPE_SYSTEM_ALERT, IDLE_FLAGS, PixelFormat.TRANSLUCENT);
+	}
+
+	public boolean isArmed() {
+		return armed;
+	}
+
+	/**
+	 * Adds the idle window ahead of the first swipe so arming it is a flag
+	 * update only.
+	 */
+	public void attach() {
+		if (!attached)
+			setArmed(false);
+	}
+
+	/**
+	 * @return false when the window could not be added, it is left disarmed
+	 */
+	public boolean arm() {
+		setArmed(true);
+		if (!attached)
+			armed = false;
+		return armed;
+	}
+
+	public void disarm() {
+		if (armed)
+			setArmed(false);
+	}
+
+	private void setArmed(boolean armed) {
+		this.armed = armed;
+		params.flags = armed ? ARMED_FLAGS : IDLE_FLAGS;
+		if (attached)
+			try {
+				windowManager.updateViewLayout(view, params);
+				updates++;
+				return;
+			} catch (Exception e) {
+				// removed behind our back, add it again
+				failures++;
+				attached = false;
+			}
+		try {
+			windowManager.addView(view, params);
+			attached = true;
+			adds++;
+		} catch (Exception e) {
+			failures++;
+		}
+	}
+
+	public void detach() {
+		armed = false;
+		if (!attached)
+			return;
+		try {
+			windowManager.removeView(view);
+			removes++;
+		} catch (Exception e) {
+			failures++;
+		}
+		attached = false;
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Alternative window: ").append(adds).append(" adds, ").append(removes).append(" removes, ").append(updates).append(" flag updates, ")
+				.append(failures).append(" failures\n");
+	}
+}
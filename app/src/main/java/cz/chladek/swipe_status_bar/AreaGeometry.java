@@ -0,0 +1,48 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Splits the gesture area into left padding, trigger area and right padding.
+ * Position, width and the resulting trigger bounds are fractions of the screen
+ * width.
+ */
+public final class AreaGeometry {
+
+	private float leftWeight, triggerWeight, rightWeight;
+
+	public void update(float position, float width) {
+		float widthHalf = width * 0.5f;
+		triggerWeight = width;
+		rightWeight = Math.max((1 - position) - widthHalf, 0);
+		leftWeight = Math.min(position - widthHalf, 1 - width - rightWeight);
+	}
+
+	/**
+	 * @return left edge of the trigger area as a fraction of the total width
+	 */
+	public float getTriggerStart() {
+		float left = Math.max(leftWeight, 0);
+		float sum = left + triggerWeight + rightWeight;
+		return sum > 0 ? left / sum : 0;
+	}
+
+	public float getTriggerEnd() {
+		float left = Math.max(leftWeight, 0);
+		float sum = left + triggerWeight + rightWeight;
+		return sum > 0 ? Math.min((left + triggerWeight) / sum, 1) : 0;
+	}
+}
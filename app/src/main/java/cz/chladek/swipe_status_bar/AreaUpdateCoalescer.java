@@ -0,0 +1,159 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.view.Choreographer;
+
+/**
+ * Merges gesture area changes coming from the calibration SeekBars and
+ * applies them to the service at most once per display frame. Must be used
+ * from the main thread.
+ */
+public class AreaUpdateCoalescer implements Runnable {
+
+	private static final long FRAME_DELAY = 16;
+
+	private final FrameScheduler scheduler;
+	private OnAppliedListener listener;
+	private int height;
+	private float position, width;
+	private boolean heightDirty, areaDirty, scheduled;
+	private int applied, merged;
+
+	public AreaUpdateCoalescer(float position, float width) {
+		this.position = position;
+		this.width = width;
+		scheduler = Build.VERSION.SDK_INT >= 16 ? new ChoreographerScheduler(this) : new HandlerScheduler(this);
+	}
+
+	public void setOnAppliedListener(OnAppliedListener listener) {
+		this.listener = listener;
+	}
+
+	public void setHeight(int height) {
+		this.height = height;
+		heightDirty = true;
+		schedule();
+	}
+
+	public void setWidth(float width) {
+		this.width = width;
+		areaDirty = true;
+		schedule();
+	}
+
+	public void setPosition(float position) {
+		this.position = position;
+		areaDirty = true;
+		schedule();
+	}
+
+	public int getApplied() {
+		return applied;
+	}
+
+	public int getMerged() {
+		return merged;
+	}
+
+	public void cancel() {
+		if (scheduled)
+			scheduler.cancel();
+		scheduled = heightDirty = areaDirty = false;
+	}
+
+	private void schedule() {
+		if (scheduled) {
+			merged++;
+			return;
+		}
+		scheduled = true;
+		scheduler.schedule();
+	}
+
+	@Override
+	public void run() {
+		scheduled = false;
+		StatusBarService sbs = ServiceState.getService();
+		if (sbs != null) {
+			if (heightDirty)
+				sbs.setAreaHeight(height);
+			if (areaDirty)
+				sbs.setArea(position, width);
+			applied++;
+		}
+		heightDirty = areaDirty = false;
+		if (listener != null)
+			listener.onApplied(this);
+	}
+
+	public interface OnAppliedListener {
+		public void onApplied(AreaUpdateCoalescer coalescer);
+	}
+
+	private interface FrameScheduler {
+		void schedule();
+
+		void cancel();
+	}
+
+	private static class HandlerScheduler implements FrameScheduler {
+		private final Handler handler = new Handler();
+		private final Runnable task;
+
+		private HandlerScheduler(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void schedule() {
+			handler.postDelayed(task, FRAME_DELAY);
+		}
+
+		@Override
+		public void cancel() {
+			handler.removeCallbacks(task);
+		}
+	}
+
+	@TargetApi(16)
+	private static class ChoreographerScheduler implements FrameScheduler, Choreographer.FrameCallback {
+		private final Choreographer choreographer = Choreographer.getInstance();
+		private final Runnable task;
+
+		private ChoreographerScheduler(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void schedule() {
+			choreographer.postFrameCallback(this);
+		}
+
+		@Override
+		public void cancel() {
+			choreographer.removeFrameCallback(this);
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			task.run();
+		}
+	}
+}
@@ -29,10 +29,7 @@ public class BootReceiver extends BroadcastReceiver {
 	@Override
 	public void onReceive(Context context, Intent intent) {
 		SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-		if (prefs.getBoolean(context.getString(R.string.pref_key_start_service), false) && BOOT_COMPLETED.equals(intent.getAction())) {
-			Intent swipeService = new Intent(context, StatusBarService.class);
-			swipeService.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-			context.startService(swipeService);
-		}
+		if (prefs.getBoolean(context.getString(R.string.pref_key_start_service), false) && BOOT_COMPLETED.equals(intent.getAction()))
+			ServiceState.start(context);
 	}
 }
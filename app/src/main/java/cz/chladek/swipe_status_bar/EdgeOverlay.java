@@ -0,0 +1,125 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.View.OnTouchListener;
+import android.view.WindowManager;
+import android.view.WindowManager.LayoutParams;
+
+/**
+ * Gesture window along one screen edge with its own recognizer and touch
+ * latency histogram. All overlays share the touch listener of the service.
+ */
+public class EdgeOverlay {
+
+	private final int edge;
+	private final GestureAreaView area;
+	private final GestureWindow window;
+	private final GestureEngine engine;
+	private final LatencyHistogram latency;
+
+	public EdgeOverlay(Context context, WindowManager windowManager, int edge, int thickness, OnTouchListener listener) {
+		this.edge = edge;
+		boolean vertical = isVertical(edge);
+		area = new GestureAreaView(context, vertical);
+		area.setOnTouchListener(listener);
+		LayoutParams params = new LayoutParams(vertical ? thickness : LayoutParams.MATCH_PARENT, vertical ? LayoutParams.MATCH_PARENT : thickness,
+				LayoutParams.TYPE_PRIORITY_PHONE, LayoutParams.FLAG_NOT_FOCUSABLE, PixelFormat.TRANSLUCENT);
+		params.gravity = getGravity(edge);
+		window = new GestureWindow(windowManager, area, params);
+		engine = new GestureEngine();
+		engine.setEdge(edge);
+		latency = new LatencyHistogram("touch dispatch");
+	}
+
+	private static boolean isVertical(int edge) {
+		return edge == GestureZones.EDGE_LEFT || edge == GestureZones.EDGE_RIGHT;
+	}
+
+	private static int getGravity(int edge) {
+		switch (edge) {
+		case GestureZones.EDGE_BOTTOM:
+			return Gravity.BOTTOM;
+		case GestureZones.EDGE_LEFT:
+			return Gravity.LEFT;
+		case GestureZones.EDGE_RIGHT:
+			return Gravity.RIGHT;
+		default:
+			return Gravity.TOP;
+		}
+	}
+
+	public int getEdge() {
+		return edge;
+	}
+
+	public GestureAreaView getArea() {
+		return area;
+	}
+
+	public GestureWindow getWindow() {
+		return window;
+	}
+
+	public GestureEngine getEngine() {
+		return engine;
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Records all touches of the window, also those outside of the trigger
+	 * zones, null stops recording.
+	 */
+	public void setRecorder(final TouchRecorder recorder) {
+		area.setTouchObserver(recorder == null ? null : new OnTouchListener() {
+			@Override
+			public boolean onTouch(View v, MotionEvent me) {
+				float rawX = me.getRawX();
+				float rawY = me.getRawY();
+				recorder.record(edge, area.getTrackedZone(), me.getActionMasked(), rawX, rawY, rawX - me.getX(), rawY - me.getY(), me.getPointerCount(),
+						me.getEventTime() * 1000000L);
+				return false;
+			}
+		});
+	}
+
+	public void configure(GestureConfig config) {
+		engine.setMultiTouch(config.multiTouch);
+		engine.setThresholds(config.getEdgeDistance(edge), config.minVelocity);
+		engine.setEarlyTrigger(config.earlyTrigger);
+	}
+
+	public void setThickness(int thickness) {
+		if (isVertical(edge))
+			window.setWidth(thickness);
+		else
+			window.setHeight(thickness);
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Edge ").append(GestureZones.getEdgeName(edge)).append(":\n  ");
+		window.appendDiagnostics(sb);
+		latency.appendTo(sb);
+	}
+}
@@ -0,0 +1,127 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.WindowManager;
+import android.view.WindowManager.LayoutParams;
+
+/**
+ * Replacement of {@link StatusBarHelperActivity} that needs no activity
+ * launch. A focusable window of zero size is added before expanding, it loses
+ * the focus to the expanded panel and gets it back when the panel is
+ * collapsed. Like the helper it is dismissed then or on the next touch, and
+ * the listener restores the desktop state. When the panel does not take the
+ * focus in time the window is dismissed as well, so a lost expansion can not
+ * keep the desktop overridden.
+ */
+public class ExpansionWindow extends View {
+
+	private static final String TAG = "ExpansionWindow";
+	private static final long FOCUS_TIMEOUT = 2000;
+
+	public interface OnDismissListener {
+		void onDismiss();
+	}
+
+	private final WindowManager windowManager;
+	private final LayoutParams params;
+	private final OnDismissListener listener;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private boolean attached, focusLost;
+
+	private final Runnable focusTimeout = new Runnable() {
+		@Override
+		public void run() {
+			if (!focusLost)
+				dismiss();
+		}
+	};
+
+	public ExpansionWindow(Context context, WindowManager windowManager, OnDismissListener listener) {
+		super(context);
+		this.windowManager = windowManager;
+		this.listener = listener;
+		params = new LayoutParams(0, 0, LayoutParams.TYPE_SYSTEM_ALERT,
+				LayoutParams.FLAG_FORCE_NOT_FULLSCREEN | LayoutParams.FLAG_WATCH_OUTSIDE_TOUCH | LayoutParams.FLAG_NOT_TOUCH_MODAL, PixelFormat.TRANSLUCENT);
+	}
+
+	/**
+	 * @param panel whether an expanded panel is going to take the focus,
+	 *            without one the window waits for the next touch only
+	 * @return false when the window could not be added and nothing should be
+	 *         expanded
+	 */
+	public boolean show(boolean panel) {
+		if (attached)
+			return true;
+		focusLost = false;
+		try {
+			windowManager.addView(this, params);
+		} catch (Exception e) {
+			Log.w(TAG, "Adding the expansion window failed", e);
+			return false;
+		}
+		attached = true;
+		if (panel)
+			handler.postDelayed(focusTimeout, FOCUS_TIMEOUT);
+		return true;
+	}
+
+	public void dismiss() {
+		if (!attached)
+			return;
+		handler.removeCallbacks(focusTimeout);
+		try {
+			windowManager.removeView(this);
+		} catch (Exception e) {
+			Log.w(TAG, "Removing the expansion window failed", e);
+		}
+		attached = false;
+		listener.onDismiss();
+	}
+
+	/**
+	 * The window is focused once added, loses the focus to the panel and
+	 * regains it when the panel is collapsed. Only a regain after a loss
+	 * dismisses it.
+	 */
+	@Override
+	public void onWindowFocusChanged(boolean hasWindowFocus) {
+		super.onWindowFocusChanged(hasWindowFocus);
+		if (!attached)
+			return;
+		if (!hasWindowFocus) {
+			focusLost = true;
+			handler.removeCallbacks(focusTimeout);
+		} else if (focusLost)
+			dismiss();
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		int action = event.getActionMasked();
+		if (action == MotionEvent.ACTION_OUTSIDE || action == MotionEvent.ACTION_DOWN)
+			dismiss();
+		return true;
+	}
+}
@@ -0,0 +1,43 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Tracks whether one of our activities is in the foreground. Every activity
+ * reports onResume/onPause here, so checking it is a single field read
+ * instead of an ActivityManager query.
+ */
+public final class ForegroundTracker {
+
+	private static volatile int resumed;
+
+	private ForegroundTracker() {
+	}
+
+	// lifecycle callbacks run on the main thread only
+	public static void activityResumed() {
+		resumed++;
+	}
+
+	public static void activityPaused() {
+		if (resumed > 0)
+			resumed--;
+	}
+
+	public static boolean isInForeground() {
+		return resumed > 0;
+	}
+}
@@ -19,7 +19,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 
 import android.content.Context;
+import android.content.res.Configuration;
 import android.graphics.PixelFormat;
+import android.os.SystemClock;
 import android.util.DisplayMetrics;
 import android.view.Gravity;
 import android.view.WindowManager;
@@ -27,21 +29,45 @@ import android.widget.RelativeLayout;
 
 public class FullscreenDetector {
 
+	/**
+	 * Time the layout must stay in the new state before listeners are told,
+	 * app transitions can switch back and forth several times.
+	 */
+	private static final long DEBOUNCE_DELAY = 150;
+
 	private WindowManager windowManager;
 	private HashSet<OnFullscreenListener> listeners;
 	private Detector detector;
+	private FullscreenState state;
 	private boolean fullscreen;
+	private int flips, suppressed;
+	private long createdTime;
 
 	public FullscreenDetector(Context context) {
 		windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+		state = new FullscreenState();
 		detector = new Detector(context);
 		listeners = new HashSet<OnFullscreenListener>(2);
+		createdTime = SystemClock.elapsedRealtime();
 	}
 
 	public boolean isFullscreen() {
 		return fullscreen;
 	}
 
+	public int getFlips() {
+		return flips;
+	}
+
+	public float getFlipsPerMinute() {
+		long elapsed = SystemClock.elapsedRealtime() - createdTime;
+		return elapsed > 0 ? flips * 60000f / elapsed : 0;
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Fullscreen: ").append(flips).append(" flips (").append(getFlipsPerMinute()).append("/min), ").append(suppressed).append(" debounced\n");
+	}
+
 	public void addOnFullscreenListener(OnFullscreenListener listener) {
 		listeners.add(listener);
 	}
@@ -51,11 +77,13 @@ public class FullscreenDetector {
 	}
 
 	public void dispose() {
+		detector.removeCallbacks(detector);
 		windowManager.removeView(detector);
 	}
 
-	private class Detector extends RelativeLayout {
+	private class Detector extends RelativeLayout implements Runnable {
 		private DisplayMetrics displayMetrics;
+		private boolean metricsValid, pending;
 
 		private Detector(Context context) {
 			super(context);
@@ -66,17 +94,39 @@ public class FullscreenDetector {
 			displayMetrics = new DisplayMetrics();
 		}
 
+		@Override
+		protected void onConfigurationChanged(Configuration newConfig) {
+			super.onConfigurationChanged(newConfig);
+			metricsValid = false;
+		}
+
 		@Override
 		protected void onLayout(boolean changed, int l, int t, int r, int b) {
-			windowManager.getDefaultDisplay().getMetrics(displayMetrics);
-			boolean pre = b == displayMetrics.heightPixels || b == displayMetrics.widthPixels;
-			if (pre != fullscreen) {
-				fullscreen = pre;
-				if (listeners.size() != 0) {
-					Iterator<OnFullscreenListener> it = listeners.iterator();
-					while (it.hasNext())
-						it.next().fullscreenChanged(fullscreen);
+			if (!metricsValid) {
+				windowManager.getDefaultDisplay().getMetrics(displayMetrics);
+				metricsValid = true;
+			}
+			if (state.onLayout(b, displayMetrics.widthPixels, displayMetrics.heightPixels)) {
+				if (pending) {
+					removeCallbacks(this);
+					suppressed++;
 				}
+				pending = true;
+				postDelayed(this, DEBOUNCE_DELAY);
+			}
+		}
+
+		@Override
+		public void run() {
+			pending = false;
+			if (state.isFullscreen() == fullscreen)
+				return;
+			fullscreen = state.isFullscreen();
+			flips++;
+			if (listeners.size() != 0) {
+				Iterator<OnFullscreenListener> it = listeners.iterator();
+				while (it.hasNext())
+					it.next().fullscreenChanged(fullscreen);
 			}
 		}
 	}
@@ -0,0 +1,40 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Fullscreen decision of {@link FullscreenDetector}: a full height detector
+ * window reaching the display edge means no status bar is shown.
+ */
+public final class FullscreenState {
+
+	private boolean fullscreen;
+
+	public boolean isFullscreen() {
+		return fullscreen;
+	}
+
+	/**
+	 * @return true when the fullscreen state changed
+	 */
+	public boolean onLayout(int bottom, int displayWidth, int displayHeight) {
+		boolean pre = bottom == displayHeight || bottom == displayWidth;
+		if (pre == fullscreen)
+			return false;
+		fullscreen = pre;
+		return true;
+	}
+}
@@ -0,0 +1,111 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Content of the gesture window. Draws and hit-tests its trigger zones
+ * itself, so changing them is only an invalidate. Touches starting outside of
+ * all zones are not passed to the touch listener, only to the observer.
+ */
+public class GestureAreaView extends View {
+
+	private final ZoneIndex zones;
+	private final Paint paint;
+	private final boolean vertical;
+	private int trackedZone = -1;
+	private OnTouchListener observer;
+
+	public GestureAreaView(Context context) {
+		this(context, false);
+	}
+
+	/**
+	 * @param vertical zones are laid out along the height, for the left and
+	 *            right edges
+	 */
+	public GestureAreaView(Context context, boolean vertical) {
+		super(context);
+		this.vertical = vertical;
+		zones = new ZoneIndex();
+		paint = new Paint();
+		paint.setColor(Color.TRANSPARENT);
+	}
+
+	/**
+	 * Zones along the width of the view, or its height when vertical, call {@link #zonesChanged()} after
+	 * modifying them.
+	 */
+	public ZoneIndex getZones() {
+		return zones;
+	}
+
+	public void zonesChanged() {
+		zones.layout(vertical ? getHeight() : getWidth());
+		invalidate();
+	}
+
+	/**
+	 * @return zone the current touch started in, -1 if none
+	 */
+	public int getTrackedZone() {
+		return trackedZone;
+	}
+
+	/**
+	 * Sets a listener seeing every touch of the view, before it is matched
+	 * with the zones. Its result is ignored.
+	 */
+	public void setTouchObserver(OnTouchListener observer) {
+		this.observer = observer;
+	}
+
+	public void setAreaColor(int color) {
+		paint.setColor(color);
+		invalidate();
+	}
+
+	@Override
+	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+		super.onSizeChanged(w, h, oldw, oldh);
+		zones.layout(vertical ? h : w);
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		if (paint.getColor() != Color.TRANSPARENT)
+			for (int i = zones.size() - 1; i >= 0; i--)
+				if (vertical)
+					canvas.drawRect(0, zones.getStart(i), getWidth(), zones.getEnd(i), paint);
+				else
+					canvas.drawRect(zones.getStart(i), 0, zones.getEnd(i), getHeight(), paint);
+	}
+
+	@Override
+	public boolean dispatchTouchEvent(MotionEvent event) {
+		if (event.getActionMasked() == MotionEvent.ACTION_DOWN)
+			trackedZone = zones.find(vertical ? event.getY() : event.getX());
+		if (observer != null)
+			observer.onTouch(this, event);
+		return trackedZone >= 0 && super.dispatchTouchEvent(event);
+	}
+}
@@ -0,0 +1,87 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.util.Arrays;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Immutable snapshot of the preferences read while handling touch events.
+ * A new instance is built whenever preferences change, so the touch path only
+ * reads final fields.
+ */
+public final class GestureConfig {
+
+	public final boolean multiTouch;
+	public final boolean vibrate;
+	public final int vibrateStrength;
+	public final boolean expandSettings;
+	public final boolean alternativeMode;
+	public final boolean showOnly;
+	public final boolean permanentVisibility;
+	/** custom trigger zones, see {@link GestureZones}, empty for the calibrated area */
+	public final String zones;
+	private final float[] edgeDistances;
+	/** see {@link GestureEngine#setThresholds(float, float)} */
+	public final float minVelocity;
+	/** see {@link GestureEngine#setEarlyTrigger(float)} */
+	public final float earlyTrigger;
+	/** expand through {@link ExpansionWindow} instead of the helper activity */
+	public final boolean windowExpansion;
+
+	private GestureConfig(boolean multiTouch, boolean vibrate, int vibrateStrength, boolean expandSettings, boolean alternativeMode, boolean showOnly,
+			boolean permanentVisibility, String zones, float[] edgeDistances, float minVelocity,
+			float earlyTrigger, boolean windowExpansion) {
+		this.multiTouch = multiTouch;
+		this.vibrate = vibrate;
+		this.vibrateStrength = vibrateStrength;
+		this.expandSettings = expandSettings;
+		this.alternativeMode = alternativeMode;
+		this.showOnly = showOnly;
+		this.permanentVisibility = permanentVisibility;
+		this.zones = zones;
+		this.edgeDistances = edgeDistances;
+		this.minVelocity = minVelocity;
+		this.earlyTrigger = earlyTrigger;
+		this.windowExpansion = windowExpansion;
+	}
+
+	/**
+	 * @return distance in px a swipe from the given edge must travel
+	 */
+	public float getEdgeDistance(int edge) {
+		return edgeDistances[edge];
+	}
+
+	public static GestureConfig load(Context context, SharedPreferences prefs) {
+		float[] edgeDistances = new float[GestureZones.EDGE_COUNT];
+		Arrays.fill(edgeDistances, GestureEngine.DEFAULT_MIN_DISTANCE);
+		GestureZones.parseDistances(prefs.getString(context.getString(R.string.pref_key_edge_distances), ""), edgeDistances);
+		return new GestureConfig(prefs.getBoolean(context.getString(R.string.pref_key_multi_touch), false),
+				prefs.getBoolean(context.getString(R.string.pref_key_vibrate), false),
+				prefs.getInt(context.getString(R.string.pref_key_vibrate_strength), 15),
+				prefs.getBoolean(context.getString(R.string.pref_key_expand_settings), false),
+				prefs.getBoolean(context.getString(R.string.pref_key_alternative_mode), false),
+				prefs.getBoolean(context.getString(R.string.pref_key_show_only), false),
+				prefs.getBoolean(context.getString(R.string.pref_key_permanent_visibility), false),
+				prefs.getString(context.getString(R.string.pref_key_gesture_zones), "").trim(), edgeDistances,
+				Float.parseFloat(prefs.getString(context.getString(R.string.pref_key_min_velocity), Float.toString(GestureEngine.DEFAULT_MIN_VELOCITY))),
+				Float.parseFloat(prefs.getString(context.getString(R.string.pref_key_early_trigger), Float.toString(GestureEngine.DEFAULT_EARLY_TRIGGER))),
+				"window".equals(prefs.getString(context.getString(R.string.pref_key_expansion_mode), "activity")));
+	}
+}
@@ -0,0 +1,181 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Swipe recognizer working on primitive touch samples only, so it has no
+ * Android dependencies and can be fed from recorded streams on a plain JVM.
+ * Action codes match the masked MotionEvent actions. Not thread safe, one
+ * instance per touch source.
+ */
+public final class GestureEngine {
+
+	public static final int ACTION_DOWN = 0;
+	public static final int ACTION_UP = 1;
+	public static final int ACTION_MOVE = 2;
+	public static final int ACTION_CANCEL = 3;
+
+	public static final int DECISION_NONE = 0;
+	public static final int DECISION_NOTIFICATION = 1;
+	/** not reported by the engine, the settings panel has trigger zones of its own */
+	public static final int DECISION_SETTINGS = 2;
+
+	public static final int EDGE_TOP = 0;
+	public static final int EDGE_BOTTOM = 1;
+	public static final int EDGE_LEFT = 2;
+	public static final int EDGE_RIGHT = 3;
+
+	public static final float DEFAULT_MIN_DISTANCE = 5;
+	public static final float DEFAULT_MIN_VELOCITY = 0;
+	/** the early trigger is off unless enabled */
+	public static final float DEFAULT_EARLY_TRIGGER = 0;
+	/** velocity in px/s away from the edge at which a flick gets full confidence */
+	public static final float FLICK_VELOCITY = 1500;
+
+	private boolean multiTouch;
+	private float minDistance = DEFAULT_MIN_DISTANCE;
+	private float minVelocity = DEFAULT_MIN_VELOCITY;
+	private int edge = EDGE_TOP;
+	private float earlyConfidence;
+
+	private boolean tracking;
+	private float downX, downY;
+	private long downTime;
+	private float lastDistance, velocity, acceleration;
+	private long lastTime;
+	private int samples;
+
+	/**
+	 * Recognizes only swipes made with at least two fingers.
+	 */
+	public void setMultiTouch(boolean multiTouch) {
+		this.multiTouch = multiTouch;
+	}
+
+	/**
+	 * Edge the swipes start from, they are recognized in the direction away
+	 * from it. Top by default.
+	 */
+	public void setEdge(int edge) {
+		this.edge = edge;
+	}
+
+	/**
+	 * @param minDistance distance in px the finger must travel away from the edge since the first touch
+	 * @param minVelocity average velocity in px/s since the first touch, 0 disables the check
+	 */
+	public void setThresholds(float minDistance, float minVelocity) {
+		this.minDistance = minDistance;
+		this.minVelocity = minVelocity;
+	}
+
+	/**
+	 * Lets fast flicks trigger before they travel the minimum distance, when
+	 * the confidence computed from their velocity and acceleration reaches the
+	 * given value.
+	 * 
+	 * @param confidence between 0 and 1, 0 disables the early trigger
+	 */
+	public void setEarlyTrigger(float confidence) {
+		earlyConfidence = confidence;
+	}
+
+	/**
+	 * @param x position relative to the trigger area
+	 * @param y raw screen position, only differences of both coordinates are
+	 *            used for the swipe itself
+	 * @return DECISION_NOTIFICATION when the swipe is recognized, at most once
+	 *         per gesture, DECISION_NONE otherwise. The panel to expand is
+	 *         the action of the zone the gesture started in.
+	 */
+	public int onTouchEvent(int action, float x, float y, int pointerCount, long timestampNanos) {
+		switch (action) {
+		case ACTION_DOWN:
+			tracking = true;
+			downX = x;
+			downY = y;
+			downTime = lastTime = timestampNanos;
+			lastDistance = velocity = acceleration = 0;
+			samples = 0;
+			break;
+		case ACTION_MOVE:
+			if (!tracking || (multiTouch && pointerCount < 2))
+				return DECISION_NONE;
+			float distance = distance(x, y);
+			updateVelocity(distance, timestampNanos);
+			if (distance <= minDistance) {
+				if (earlyConfidence <= 0 || getConfidence(distance, x, y) < earlyConfidence)
+					return DECISION_NONE;
+			} else if (minVelocity > 0) {
+				long elapsed = timestampNanos - downTime;
+				if (elapsed > 0 && distance * 1e9f / elapsed < minVelocity)
+					return DECISION_NONE;
+			}
+			tracking = false;
+			return DECISION_NOTIFICATION;
+		case ACTION_UP:
+		case ACTION_CANCEL:
+			tracking = false;
+			break;
+		}
+		return DECISION_NONE;
+	}
+
+	private void updateVelocity(float distance, long timestampNanos) {
+		long elapsed = timestampNanos - lastTime;
+		// samples with the same timestamp are merged with the next one
+		if (elapsed <= 0)
+			return;
+		float v = (distance - lastDistance) * 1e9f / elapsed;
+		acceleration = samples > 0 ? (v - velocity) * 1e9f / elapsed : 0;
+		velocity = v;
+		lastDistance = distance;
+		lastTime = timestampNanos;
+		samples++;
+	}
+
+	/**
+	 * @return confidence between 0 and 1 that the touch is a swipe away from
+	 *         the edge, from the velocity away from it and the direction of
+	 *         the movement. Decelerating touches that would stop before the
+	 *         minimum distance get none.
+	 */
+	private float getConfidence(float distance, float x, float y) {
+		if (distance <= 0 || velocity <= 0)
+			return 0;
+		if (acceleration < 0 && distance + velocity * velocity / (-2 * acceleration) < minDistance)
+			return 0;
+		float purity = distance / (distance + Math.abs(across(x, y)));
+		return purity * Math.min(1, velocity / FLICK_VELOCITY);
+	}
+
+	private float across(float x, float y) {
+		return edge == EDGE_LEFT || edge == EDGE_RIGHT ? y - downY : x - downX;
+	}
+
+	private float distance(float x, float y) {
+		switch (edge) {
+		case EDGE_BOTTOM:
+			return downY - y;
+		case EDGE_LEFT:
+			return x - downX;
+		case EDGE_RIGHT:
+			return downX - x;
+		default:
+			return y - downY;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.os.Handler;
+import android.view.View;
+import android.view.WindowManager;
+import android.view.WindowManager.LayoutParams;
+
+/**
+ * Keeps an overlay window attached once it was shown and switches it between
+ * touchable and not touchable with a layout update, which is much cheaper
+ * than removing and adding the window again. Deactivation is delayed by a
+ * hysteresis so quick flips during app transitions cancel out.
+ */
+public class GestureWindow implements Runnable {
+
+	public static final long DEFAULT_HYSTERESIS = 500;
+
+	private final WindowManager windowManager;
+	private final View view;
+	private final LayoutParams params;
+	private final Handler handler;
+	private long hysteresis = DEFAULT_HYSTERESIS;
+	private boolean attached, touchable, active;
+	private int adds, removes, flagUpdates;
+
+	public GestureWindow(WindowManager windowManager, View view, LayoutParams params) {
+		this.windowManager = windowManager;
+		this.view = view;
+		this.params = params;
+		handler = new Handler();
+	}
+
+	public void setHysteresis(long hysteresis) {
+		this.hysteresis = hysteresis;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+		handler.removeCallbacks(this);
+		if (active || hysteresis <= 0)
+			run();
+		else
+			handler.postDelayed(this, hysteresis);
+	}
+
+	@Override
+	public void run() {
+		if (!attached) {
+			if (active) {
+				setTouchable(true);
+				windowManager.addView(view, params);
+				attached = true;
+				adds++;
+			}
+		} else if (touchable != active) {
+			setTouchable(active);
+			windowManager.updateViewLayout(view, params);
+			flagUpdates++;
+		}
+	}
+
+	private void setTouchable(boolean touchable) {
+		this.touchable = touchable;
+		if (touchable)
+			params.flags &= ~LayoutParams.FLAG_NOT_TOUCHABLE;
+		else
+			params.flags |= LayoutParams.FLAG_NOT_TOUCHABLE;
+		view.setVisibility(touchable ? View.VISIBLE : View.INVISIBLE);
+	}
+
+	public void setHeight(int height) {
+		params.height = height;
+		if (attached && touchable)
+			windowManager.updateViewLayout(view, params);
+	}
+
+	public void setWidth(int width) {
+		params.width = width;
+		if (attached && touchable)
+			windowManager.updateViewLayout(view, params);
+	}
+
+	public void detach() {
+		handler.removeCallbacks(this);
+		if (attached) {
+			windowManager.removeView(view);
+			attached = false;
+			removes++;
+		}
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Gesture window: ").append(adds).append(" adds, ").append(removes).append(" removes, ").append(flagUpdates).append(" flag updates\n");
+	}
+}
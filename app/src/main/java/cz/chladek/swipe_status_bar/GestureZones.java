@@ -0,0 +1,90 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Parses the gesture zone preference. Zones are separated by ';', each one is
+ * "edge:start-end:action" where edge is top, bottom, left or right, start and
+ * end are fractions of the edge length and action is one of the
+ * {@link ShortcutActivity} actions, e.g.
+ * "top:0-0.5:EXPAND_NOTIFICATIONS;top:0.5-1:EXPAND_SETTINGS". Malformed zones
+ * are skipped.
+ */
+public final class GestureZones {
+
+	public static final int EDGE_TOP = GestureEngine.EDGE_TOP;
+	public static final int EDGE_BOTTOM = GestureEngine.EDGE_BOTTOM;
+	public static final int EDGE_LEFT = GestureEngine.EDGE_LEFT;
+	public static final int EDGE_RIGHT = GestureEngine.EDGE_RIGHT;
+	public static final int EDGE_COUNT = 4;
+
+	private static final String[] EDGE_NAMES = { "top", "bottom", "left", "right" };
+
+	private GestureZones() {
+	}
+
+	/**
+	 * Adds zones of the given edge from the spec to the index, which may be
+	 * null to only count them.
+	 * 
+	 * @return number of zones added
+	 */
+	public static int parse(String spec, int edge, ZoneIndex index) {
+		int added = 0;
+		for (String zone : spec.split(";")) {
+			String[] parts = zone.trim().split(":");
+			if (parts.length != 3 || !EDGE_NAMES[edge].equalsIgnoreCase(parts[0].trim()))
+				continue;
+			String[] range = parts[1].split("-");
+			int mode = ShortcutActivity.getModeForAction(parts[2].trim());
+			if (range.length != 2 || mode < 0)
+				continue;
+			try {
+				float start = Math.max(Float.parseFloat(range[0].trim()), 0);
+				float end = Math.min(Float.parseFloat(range[1].trim()), 1);
+				if (start < end) {
+					if (index != null)
+						index.add(start, end, mode);
+					added++;
+				}
+			} catch (NumberFormatException e) {
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Parses per edge swipe distances in px, e.g. "left:20;right:20". Edges
+	 * not in the spec keep their value in the array.
+	 */
+	public static void parseDistances(String spec, float[] distances) {
+		for (String entry : spec.split(";")) {
+			String[] parts = entry.trim().split(":");
+			if (parts.length != 2)
+				continue;
+			for (int edge = 0; edge < EDGE_COUNT; edge++)
+				if (EDGE_NAMES[edge].equalsIgnoreCase(parts[0].trim()))
+					try {
+						distances[edge] = Math.max(Float.parseFloat(parts[1].trim()), 0);
+					} catch (NumberFormatException e) {
+					}
+		}
+	}
+
+	public static String getEdgeName(int edge) {
+		return EDGE_NAMES[edge];
+	}
+}
@@ -0,0 +1,226 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+
+/**
+ * Restarts {@link StatusBarService} when the system kills it. How often the
+ * process is woken up to do so depends on the selected {@link Strategy}.
+ */
+public class KeepAlive {
+
+	public static final int STRATEGY_REPEATING = 0;
+	public static final int STRATEGY_BACKOFF = 1;
+	public static final int STRATEGY_INEXACT = 2;
+	public static final int STRATEGY_ON_DESTROY = 3;
+
+	public static final String EXTRA_WAKEUP = "cz.chladek.swipe_status_bar.KeepAlive.wakeup";
+
+	private static final String[] STRATEGY_NAMES = { "repeating", "backoff", "inexact", "destroy" };
+	private static final long MAX_BACKOFF_INTERVAL = AlarmManager.INTERVAL_FIFTEEN_MINUTES;
+	private static final long RESTART_DELAY = 1000;
+
+	private static final int[] wakeups = new int[STRATEGY_NAMES.length];
+	private static final long countingSince = SystemClock.elapsedRealtime();
+
+	private Context context;
+	private SharedPreferences prefs;
+	private AlarmManager alarm;
+	private PendingIntent pending;
+	private Strategy strategy;
+	private int strategyId;
+	private long interval;
+	private boolean enabled;
+
+	public KeepAlive(Context context, SharedPreferences prefs) {
+		this.context = context.getApplicationContext();
+		this.prefs = prefs;
+		alarm = (AlarmManager) this.context.getSystemService(Context.ALARM_SERVICE);
+		Intent intent = new Intent(this.context, StatusBarService.class);
+		intent.putExtra(EXTRA_WAKEUP, true);
+		pending = PendingIntent.getService(this.context, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
+		loadPreferences();
+	}
+
+	private void loadPreferences() {
+		interval = Integer.parseInt(prefs.getString(context.getString(R.string.pref_key_check_life_interval), "2500"));
+		String name = prefs.getString(context.getString(R.string.pref_key_keepalive_strategy), STRATEGY_NAMES[STRATEGY_BACKOFF]);
+		strategyId = STRATEGY_BACKOFF;
+		for (int i = 0; i < STRATEGY_NAMES.length; i++)
+			if (STRATEGY_NAMES[i].equals(name))
+				strategyId = i;
+		switch (strategyId) {
+		case STRATEGY_REPEATING:
+			strategy = new RepeatingStrategy();
+			break;
+		case STRATEGY_INEXACT:
+			strategy = new InexactStrategy();
+			break;
+		case STRATEGY_ON_DESTROY:
+			strategy = new OnDestroyStrategy();
+			break;
+		default:
+			strategy = new BackoffStrategy();
+		}
+	}
+
+	/**
+	 * Re-reads the strategy and interval preferences.
+	 */
+	public void reload() {
+		alarm.cancel(pending);
+		loadPreferences();
+		if (enabled)
+			strategy.start();
+	}
+
+	public void setEnabled(boolean enable) {
+		enabled = enable;
+		alarm.cancel(pending);
+		if (enable)
+			strategy.start();
+	}
+
+	/**
+	 * Called for every start of the service caused by our alarm.
+	 * 
+	 * @param alive true when the service was already running, false when the
+	 *            alarm had to recreate it
+	 */
+	public void onWakeup(boolean alive) {
+		wakeups[strategyId]++;
+		if (enabled)
+			strategy.onWakeup(alive);
+	}
+
+	/**
+	 * Called from onDestroy and onTaskRemoved of the service. Neither runs
+	 * when the system kills the whole process.
+	 */
+	public void onServiceKilled() {
+		if (prefs.getBoolean(context.getString(R.string.pref_key_start_service), false))
+			strategy.onServiceKilled();
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		long minutes = Math.max((SystemClock.elapsedRealtime() - countingSince) / 60000, 1);
+		sb.append("Keepalive strategy: ").append(STRATEGY_NAMES[strategyId]).append('\n');
+		for (int i = 0; i < STRATEGY_NAMES.length; i++)
+			sb.append("  ").append(STRATEGY_NAMES[i]).append(": ").append(wakeups[i]).append(" wakeups, ").append(wakeups[i] * 60 / minutes).append("/h\n");
+	}
+
+	private interface Strategy {
+		void start();
+
+		void onWakeup(boolean alive);
+
+		void onServiceKilled();
+	}
+
+	/**
+	 * Original behaviour, fixed rate alarm with the check life interval.
+	 */
+	private class RepeatingStrategy implements Strategy {
+		@Override
+		public void start() {
+			alarm.setRepeating(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime(), interval, pending);
+		}
+
+		@Override
+		public void onWakeup(boolean alive) {
+		}
+
+		@Override
+		public void onServiceKilled() {
+		}
+	}
+
+	/**
+	 * One shot alarm, the delay doubles every time the service is found
+	 * alive and drops back to the check life interval after a restart.
+	 */
+	private class BackoffStrategy implements Strategy {
+		private long delay;
+
+		@Override
+		public void start() {
+			delay = interval;
+			schedule();
+		}
+
+		@Override
+		public void onWakeup(boolean alive) {
+			delay = alive ? Math.min(delay * 2, MAX_BACKOFF_INTERVAL) : interval;
+			schedule();
+		}
+
+		@Override
+		public void onServiceKilled() {
+			alarm.set(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + RESTART_DELAY, pending);
+		}
+
+		private void schedule() {
+			alarm.set(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + delay, pending);
+		}
+	}
+
+	/**
+	 * Inexact alarm the system can batch with other wakeups.
+	 */
+	private class InexactStrategy implements Strategy {
+		@Override
+		public void start() {
+			long period = Math.max(interval, AlarmManager.INTERVAL_FIFTEEN_MINUTES);
+			alarm.setInexactRepeating(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + period, period, pending);
+		}
+
+		@Override
+		public void onWakeup(boolean alive) {
+		}
+
+		@Override
+		public void onServiceKilled() {
+			alarm.set(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + RESTART_DELAY, pending);
+		}
+	}
+
+	/**
+	 * No polling at all. The alarm only covers a service that is stopped or
+	 * whose task is removed, onDestroy does not run when the process is killed
+	 * and then only START_STICKY brings the service back, whenever the system
+	 * decides to.
+	 */
+	private class OnDestroyStrategy implements Strategy {
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void onWakeup(boolean alive) {
+		}
+
+		@Override
+		public void onServiceKilled() {
+			alarm.set(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime() + RESTART_DELAY, pending);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Fixed size histogram with power of two microsecond buckets, recording does
+ * not allocate.
+ */
+public final class LatencyHistogram {
+
+	private static final int BUCKETS = 25;
+
+	private final String name;
+	private final long[] counts = new long[BUCKETS];
+	private long total, sumNanos, maxNanos;
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	public synchronized void record(long nanos) {
+		long micros = nanos / 1000;
+		int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+		counts[Math.min(bucket, BUCKETS - 1)]++;
+		total++;
+		sumNanos += nanos;
+		if (nanos > maxNanos)
+			maxNanos = nanos;
+	}
+
+	public synchronized long getCount() {
+		return total;
+	}
+
+	public synchronized long getMeanNanos() {
+		return total == 0 ? 0 : sumNanos / total;
+	}
+
+	public synchronized long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * @return upper bound of the bucket holding the given percentile, in
+	 *         microseconds
+	 */
+	public synchronized long getPercentileMicros(double percentile) {
+		long limit = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= limit && seen > 0)
+				return 1L << i;
+		}
+		return 0;
+	}
+
+	public synchronized void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = 0;
+		total = sumNanos = maxNanos = 0;
+	}
+
+	public synchronized void appendTo(StringBuilder sb) {
+		sb.append("  ").append(name).append(": n=").append(total);
+		if (total > 0)
+			sb.append(", mean=").append(getMeanNanos() / 1000).append("us, p50<").append(getPercentileMicros(50)).append("us, p99<").append(getPercentileMicros(99))
+					.append("us, max=").append(maxNanos / 1000).append("us");
+		sb.append('\n');
+	}
+}
@@ -25,7 +25,6 @@ import com.android.vending.billing.utils.Purchase;
 
 import cz.chladek.android.preferences.BlinkingPreference;
 import cz.chladek.swipe_status_bar.R;
-import android.os.Build;
 import android.os.Bundle;
 import android.os.Vibrator;
 import android.preference.CheckBoxPreference;
@@ -47,7 +46,6 @@ import android.content.DialogInterface;
 import android.content.DialogInterface.OnClickListener;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.content.SharedPreferences.Editor;
 import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager.NameNotFoundException;
@@ -59,12 +57,12 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 
 	private static final int RC_REQUEST = 394867;
 
-	private Intent swipeService;
 	private SharedPreferences prefs;
+	private PreferenceWriter writer;
 	private Vibrator vibrator;
 	private IabHelper mHelper;
 	private static String sku_gift_small, sku_gift_medium, sku_gift_large;
-	public static boolean giftSmall, giftMedium, giftLarge;
+	public static volatile boolean giftSmall, giftMedium, giftLarge;
 	private int keyMenuPressedCount;
 	private String versionName, about, changelog, emailText;
 	private int versionCode;
@@ -72,11 +70,14 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 	private PreferenceScreen devPreference;
 	private boolean devVisible;
 
-	private static MainActivity instance;
-
-	public static MainActivity getInstance() {
-		return instance;
-	}
+	private ServiceState.OnStateChangeListener stateListener = new ServiceState.OnStateChangeListener() {
+		@Override
+		public void stateChanged(int oldState, int newState) {
+			// settings left in the background are closed by a swipe
+			if (newState == ServiceState.EXPANDING && !ForegroundTracker.isInForeground())
+				finish();
+		}
+	};
 
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
@@ -85,12 +86,15 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 
 		prefs = PreferenceManager.getDefaultSharedPreferences(getApplicationContext());
 		prefs.registerOnSharedPreferenceChangeListener(this);
+		writer = new PreferenceWriter(prefs);
+		ServiceState.addListener(stateListener);
 
 		findPreference(getString(R.string.pref_key_about)).setOnPreferenceClickListener(this);
 		//findPreference(getString(R.string.pref_key_bug_suggestions)).setOnPreferenceClickListener(this);
 		findPreference(getString(R.string.pref_key_try_it)).setOnPreferenceClickListener(this);
 		findPreference(getString(R.string.pref_key_donate)).setOnPreferenceClickListener(this);
 		findPreference(getString(R.string.pref_key_vibrate_strength)).setOnPreferenceClickListener(this);
+		findPreference(getString(R.string.pref_key_diagnostics)).setOnPreferenceClickListener(this);
 
 		boolean enable = prefs.getBoolean(getString(R.string.pref_key_vibrate), true);
 		findPreference(getString(R.string.pref_key_vibrate_strength)).setEnabled(enable);
@@ -107,18 +111,15 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 	}
 
 	private void checkService() {
-		swipeService = new Intent(this, StatusBarService.class);
 		boolean start = prefs.getBoolean("startService", false);
-		boolean running = StatusBarService.isRunning();
-		if (start) {
-			if (!running)
-				startService(swipeService);
-		} else
+		if (start)
+			ServiceState.start(this);
+		else
 			findPreference(getString(R.string.pref_key_try_it)).setEnabled(false);
 	}
 
 	private void checkVersion() {
-		if (Build.VERSION.SDK_INT < 17) {
+		if (!StatusBarExpander.canExpandSettings()) {
 			CheckBoxPreference chbp = (CheckBoxPreference) findPreference(getString(R.string.pref_key_expand_settings));
 			chbp.setEnabled(false);
 			chbp.setSummaryOn(R.string.pref_expand_settings_error);
@@ -140,7 +141,7 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 
 		int lastVersionCode = prefs.getInt("lastVersionCode", 0);
 		if (lastVersionCode < versionCode) {
-			prefs.edit().putInt("lastVersionCode", versionCode).commit();
+			writer.putInt("lastVersionCode", versionCode);
 			/*
 			 * AlertDialog.Builder dialog = new AlertDialog.Builder(this);
 			 * dialog.setTitle(R.string.app_name_space);
@@ -151,6 +152,12 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 		}
 	}
 
+	@Override
+	protected void onStop() {
+		super.onStop();
+		writer.flush();
+	}
+
 	private void initBilling() {
 		sku_gift_small = getString(R.string.donation_small);
 		sku_gift_medium = getString(R.string.donation_medium);
@@ -174,7 +181,7 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 	@Override
 	protected void onDestroy() {
 		super.onDestroy();
-		instance = null;
+		ServiceState.removeListener(stateListener);
 		if (mHelper != null) {
 			mHelper.dispose();
 			mHelper = null;
@@ -184,7 +191,13 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 	@Override
 	protected void onResume() {
 		super.onResume();
-		instance = this;
+		ForegroundTracker.activityResumed();
+	}
+
+	@Override
+	protected void onPause() {
+		super.onPause();
+		ForegroundTracker.activityPaused();
 	}
 
 	@Override
@@ -223,17 +236,17 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 			boolean enable = prefs.getBoolean(getString(R.string.pref_key_vibrate), false);
 			findPreference(getString(R.string.pref_key_vibrate_strength)).setEnabled(enable);
 		} else if (key.equals(getString(R.string.pref_key_permanent_visibility))) {
-			StatusBarService sbs = StatusBarService.getInstance();
+			StatusBarService sbs = ServiceState.getService();
 			if (sbs != null)
 				sbs.setAreaVisibility(prefs.getBoolean(key, false));
-		} else if (key.equals(getString(R.string.pref_key_check_life_interval))) {
-			StatusBarService sbs = StatusBarService.getInstance();
+		} else if (key.equals(getString(R.string.pref_key_check_life_interval)) || key.equals(getString(R.string.pref_key_keepalive_strategy))) {
+			StatusBarService sbs = ServiceState.getService();
 			if (sbs != null)
-				sbs.forceRunning(true);
+				sbs.reloadKeepAlive();
 		} else if (key.equals(getString(R.string.pref_key_language)))
 			updateLanguageSettings();
 		else if (key.equals(getString(R.string.pref_key_status_bar_permanent_visibility))) {
-			StatusBarService sbs = StatusBarService.getInstance();
+			StatusBarService sbs = ServiceState.getService();
 			if (sbs != null)
 				sbs.permanentVisibility(prefs.getBoolean(key, false));
 		}
@@ -255,15 +268,10 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 	}
 
 	private void enableService(boolean enable) {
-		boolean running = StatusBarService.isRunning();
-		if (enable && !running)
-			startService(swipeService);
-		else if (!enable && running) {
-			StatusBarService sbs = StatusBarService.getInstance();
-			if (sbs != null)
-				sbs.forceRunning(false);
-			stopService(swipeService);
-		}
+		if (enable)
+			ServiceState.start(this);
+		else
+			ServiceState.stop(this);
 	}
 
 	@Override
@@ -279,6 +287,8 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 			donate();
 		else if (key.equals(getString(R.string.pref_key_vibrate_strength)))
 			showVibrationStrength();
+		else if (key.equals(getString(R.string.pref_key_diagnostics)))
+			showDiagnostics();
 		return true;
 	}
 
@@ -304,11 +314,8 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 
 			@Override
 			public void onProgressChanged(SeekBar sb, int progress, boolean fromUser) {
-				if (fromUser) {
-					Editor editor = prefs.edit();
-					editor.putInt(getString(R.string.pref_key_vibrate_strength), progress);
-					editor.commit();
-				}
+				if (fromUser)
+					writer.putInt(getString(R.string.pref_key_vibrate_strength), progress);
 			}
 		});
 		dialog.setTitle(R.string.pref_vibrate_strength);
@@ -317,6 +324,15 @@ public class MainActivity extends PreferenceActivity implements OnSharedPreferen
 		dialog.show();
 	}
 
+	private void showDiagnostics() {
+		StatusBarService sbs = ServiceState.getService();
+		AlertDialog.Builder builder = new AlertDialog.Builder(this);
+		builder.setTitle(R.string.pref_diagnostics);
+		builder.setMessage(sbs != null ? sbs.getDiagnostics() : getString(R.string.pref_diagnostics_not_running));
+		builder.setPositiveButton(R.string.button_ok, null);
+		builder.show();
+	}
+
 	private void showAbout() {
 		AlertDialog.Builder builder = new AlertDialog.Builder(this);
 		builder.setTitle(R.string.app_name);
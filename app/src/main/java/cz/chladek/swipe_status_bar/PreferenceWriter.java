@@ -0,0 +1,114 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import android.annotation.TargetApi;
+import android.content.SharedPreferences;
+import android.content.SharedPreferences.Editor;
+import android.os.Build;
+import android.os.Handler;
+
+/**
+ * Write-behind buffer for preference edits made from the main thread. Edits
+ * are collected until no new one arrives for {@link #DEBOUNCE_DELAY} ms and
+ * then applied, so SeekBar drags end up as a single disk write. Editor.apply()
+ * writes on a background thread, before API 9 the edits are committed on the
+ * main looper, where preference listeners expect to be called. Call
+ * {@link #flush()} from onStop to write pending edits immediately.
+ */
+public class PreferenceWriter {
+
+	public static final long DEBOUNCE_DELAY = 300;
+
+	private static volatile int diskWrites;
+
+	private final SharedPreferences prefs;
+	private final Handler handler;
+	private final HashMap<String, Object> pending;
+	private final Runnable flushTask = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
+	public PreferenceWriter(SharedPreferences prefs) {
+		this.prefs = prefs;
+		handler = new Handler();
+		pending = new HashMap<String, Object>(4);
+	}
+
+	public void putInt(String key, int value) {
+		put(key, value);
+	}
+
+	public void putFloat(String key, float value) {
+		put(key, value);
+	}
+
+	public void putBoolean(String key, boolean value) {
+		put(key, value);
+	}
+
+	public void putString(String key, String value) {
+		put(key, value);
+	}
+
+	private void put(String key, Object value) {
+		pending.put(key, value);
+		handler.removeCallbacks(flushTask);
+		handler.postDelayed(flushTask, DEBOUNCE_DELAY);
+	}
+
+	public void flush() {
+		handler.removeCallbacks(flushTask);
+		if (pending.isEmpty())
+			return;
+		Editor editor = prefs.edit();
+		for (Map.Entry<String, Object> entry : pending.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof Integer)
+				editor.putInt(entry.getKey(), (Integer) value);
+			else if (value instanceof Float)
+				editor.putFloat(entry.getKey(), (Float) value);
+			else if (value instanceof Boolean)
+				editor.putBoolean(entry.getKey(), (Boolean) value);
+			else
+				editor.putString(entry.getKey(), (String) value);
+		}
+		pending.clear();
+		if (Build.VERSION.SDK_INT >= 9)
+			apply(editor);
+		else
+			editor.commit();
+		diskWrites++;
+	}
+
+	@TargetApi(9)
+	private static void apply(Editor editor) {
+		editor.apply();
+	}
+
+	/**
+	 * @return number of commits done by all writers of this process
+	 */
+	public static int getDiskWrites() {
+		return diskWrites;
+	}
+}
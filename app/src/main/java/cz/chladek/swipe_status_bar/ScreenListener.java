@@ -27,7 +27,7 @@ public class ScreenListener extends BroadcastReceiver {
 	private IntentFilter filter;
 	private boolean enabled;
 
-	public static boolean screenON = true;
+	private boolean screenOn = true;
 
 	public ScreenListener(ContextWrapper cw) {
 		this.cw = cw;
@@ -50,12 +50,12 @@ public class ScreenListener extends BroadcastReceiver {
 	@Override
 	public void onReceive(Context context, Intent intent) {
 		if (intent.getAction().equals(Intent.ACTION_SCREEN_OFF))
-			screenON = false;
+			screenOn = false;
 		else if (intent.getAction().equals(Intent.ACTION_SCREEN_ON))
-			screenON = true;
+			screenOn = true;
 
-		StatusBarService sbs = StatusBarService.getInstance();
+		StatusBarService sbs = ServiceState.getService();
 		if (sbs != null)
-			sbs.forceRunning(screenON);
+			sbs.forceRunning(screenOn);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Lifecycle of {@link StatusBarService}, the only way for activities and
+ * receivers to reach it. Transitions are atomic, listeners are notified on
+ * the thread making the transition, outside of the lock.
+ */
+public final class ServiceState {
+
+	public static final int STOPPED = 0;
+	public static final int STARTING = 1;
+	public static final int ARMED = 2;
+	public static final int EXPANDING = 3;
+	public static final int RESTORING = 4;
+
+	private static final String[] NAMES = { "stopped", "starting", "armed", "expanding", "restoring" };
+
+	public interface OnStateChangeListener {
+		void stateChanged(int oldState, int newState);
+	}
+
+	private static final Object lock = new Object();
+	private static final CopyOnWriteArrayList<OnStateChangeListener> listeners = new CopyOnWriteArrayList<OnStateChangeListener>();
+	private static int state = STOPPED;
+	private static volatile StatusBarService service;
+	private static int redundantStarts;
+
+	private ServiceState() {
+	}
+
+	public static int getState() {
+		synchronized (lock) {
+			return state;
+		}
+	}
+
+	/**
+	 * @return the running service or null
+	 */
+	public static StatusBarService getService() {
+		return service;
+	}
+
+	public static boolean isRunning() {
+		return service != null;
+	}
+
+	public static void addListener(OnStateChangeListener listener) {
+		listeners.addIfAbsent(listener);
+	}
+
+	public static void removeListener(OnStateChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts the service unless it is already starting or running.
+	 */
+	public static void start(Context context) {
+		if (compareAndSet(STOPPED, STARTING))
+			context.startService(new Intent(context, StatusBarService.class));
+		else
+			synchronized (lock) {
+				redundantStarts++;
+			}
+	}
+
+	public static void stop(Context context) {
+		StatusBarService sbs = service;
+		if (sbs != null)
+			sbs.forceRunning(false);
+		else
+			compareAndSet(STARTING, STOPPED);
+		context.stopService(new Intent(context, StatusBarService.class));
+	}
+
+	static void serviceCreated(StatusBarService sbs) {
+		service = sbs;
+		set(ARMED);
+	}
+
+	static void serviceDestroyed() {
+		service = null;
+		set(STOPPED);
+	}
+
+	/**
+	 * @return false when the state was not the expected one and nothing changed
+	 */
+	public static boolean compareAndSet(int expected, int next) {
+		synchronized (lock) {
+			if (state != expected)
+				return false;
+			state = next;
+		}
+		notifyListeners(expected, next);
+		return true;
+	}
+
+	private static void set(int next) {
+		int old;
+		synchronized (lock) {
+			old = state;
+			state = next;
+		}
+		if (old != next)
+			notifyListeners(old, next);
+	}
+
+	private static void notifyListeners(int oldState, int newState) {
+		for (OnStateChangeListener listener : listeners)
+			listener.stateChanged(oldState, newState);
+	}
+
+	public static String getName(int state) {
+		return NAMES[state];
+	}
+
+	public static void appendDiagnostics(StringBuilder sb) {
+		synchronized (lock) {
+			sb.append("Service state: ").append(NAMES[state]).append(", ").append(redundantStarts).append(" redundant starts\n");
+		}
+	}
+}
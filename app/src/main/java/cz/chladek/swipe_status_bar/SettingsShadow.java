@@ -0,0 +1,219 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import android.content.ContentResolver;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.provider.Settings;
+
+/**
+ * Cached view of a fixed set of Settings.System keys. Values are refreshed
+ * by a ContentObserver on a background thread, only the changed key where
+ * the platform reports its Uri (API 16+), and not at all for the notification
+ * of our own last write of a key. Writes that would not change
+ * the cached value are dropped and the rest are queued and executed in order
+ * either on the caller thread ({@link #commit()}) or on the background thread
+ * ({@link #apply()}).
+ */
+public class SettingsShadow {
+
+	private final ContentResolver resolver;
+	private final String[] keys;
+	private final HashMap<Uri, String> uriKeys;
+	private final HashMap<String, String> values;
+	private final ArrayList<String[]> pendingWrites;
+	// keys written by us whose change notification has not arrived yet
+	private final HashMap<String, String> ownWrites;
+	private final HandlerThread thread;
+	private final Handler handler;
+	private final ContentObserver observer;
+	private final Object flushLock = new Object();
+	private int reads, writes, avoided;
+
+	public SettingsShadow(ContentResolver resolver, String... keys) {
+		this.resolver = resolver;
+		this.keys = keys;
+		values = new HashMap<String, String>(keys.length * 2);
+		uriKeys = new HashMap<Uri, String>(keys.length * 2);
+		pendingWrites = new ArrayList<String[]>(keys.length * 2);
+		ownWrites = new HashMap<String, String>(keys.length * 2);
+
+		thread = new HandlerThread("SettingsShadow");
+		thread.start();
+		handler = new Handler(thread.getLooper());
+		observer = new ContentObserver(handler) {
+			@Override
+			public void onChange(boolean selfChange) {
+				synchronized (SettingsShadow.this) {
+					ownWrites.clear();
+				}
+				refresh();
+			}
+
+			@Override
+			public void onChange(boolean selfChange, Uri uri) {
+				String key = uri != null ? uriKeys.get(uri) : null;
+				if (key != null)
+					keyChanged(key);
+				else
+					onChange(selfChange);
+			}
+		};
+		for (String key : keys) {
+			Uri uri = Settings.System.getUriFor(key);
+			uriKeys.put(uri, key);
+			resolver.registerContentObserver(uri, false, observer);
+		}
+		handler.post(new Runnable() {
+			@Override
+			public void run() {
+				refresh();
+			}
+		});
+	}
+
+	/**
+	 * Executes queued writes on the calling thread and stops the background
+	 * thread, writes applied but not yet executed are not lost.
+	 */
+	public void dispose() {
+		resolver.unregisterContentObserver(observer);
+		flush();
+		thread.quit();
+	}
+
+	private void refresh() {
+		for (String key : keys)
+			refresh(key);
+	}
+
+	private void keyChanged(String key) {
+		synchronized (this) {
+			// the cache already holds what we wrote
+			if (ownWrites.remove(key) != null) {
+				avoided++;
+				return;
+			}
+		}
+		refresh(key);
+	}
+
+	private void refresh(String key) {
+		String value = Settings.System.getString(resolver, key);
+		synchronized (this) {
+			reads++;
+			if (!isPending(key))
+				values.put(key, value);
+		}
+	}
+
+	private boolean isPending(String key) {
+		for (int i = pendingWrites.size() - 1; i >= 0; i--)
+			if (pendingWrites.get(i)[0].equals(key))
+				return true;
+		return false;
+	}
+
+	public synchronized String getString(String key) {
+		if (values.containsKey(key)) {
+			avoided++;
+			return values.get(key);
+		}
+		reads++;
+		String value = Settings.System.getString(resolver, key);
+		values.put(key, value);
+		return value;
+	}
+
+	public int getInt(String key, int def) {
+		String value = getString(key);
+		if (value == null)
+			return def;
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return def;
+		}
+	}
+
+	public synchronized void putString(String key, String value) {
+		if (values.containsKey(key) && value.equals(values.get(key))) {
+			avoided++;
+			return;
+		}
+		values.put(key, value);
+		pendingWrites.add(new String[] { key, value });
+	}
+
+	public void putInt(String key, int value) {
+		putString(key, Integer.toString(value));
+	}
+
+	/**
+	 * Executes queued writes, including those handed to {@link #apply()}
+	 * before, on the calling thread.
+	 */
+	public void commit() {
+		flush();
+	}
+
+	/**
+	 * Executes queued writes on the background thread.
+	 */
+	public void apply() {
+		handler.post(new Runnable() {
+			@Override
+			public void run() {
+				flush();
+			}
+		});
+	}
+
+	/**
+	 * Writes stay queued until they are executed, so a refresh meanwhile does
+	 * not cache the value they replace.
+	 */
+	private void flush() {
+		synchronized (flushLock) {
+			String[][] batch;
+			synchronized (this) {
+				if (pendingWrites.isEmpty())
+					return;
+				batch = pendingWrites.toArray(new String[pendingWrites.size()][]);
+			}
+			for (String[] write : batch) {
+				synchronized (this) {
+					ownWrites.put(write[0], write[1]);
+				}
+				Settings.System.putString(resolver, write[0], write[1]);
+				synchronized (this) {
+					pendingWrites.remove(write);
+					writes++;
+				}
+			}
+		}
+	}
+
+	public synchronized void appendDiagnostics(StringBuilder sb) {
+		sb.append("Settings IPC: ").append(reads).append(" reads, ").append(writes).append(" writes, ").append(avoided).append(" avoided\n");
+	}
+}
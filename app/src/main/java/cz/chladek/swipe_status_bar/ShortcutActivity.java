@@ -31,6 +31,26 @@ public class ShortcutActivity extends Activity {
 
     private static Context sInstance;
 
+    //must match StatusBarService.ShowStatusBarModes
+    private static final String sActionIds[] = {"SHOW_STATUSBAR", "EXPAND_NOTIFICATIONS", "EXPAND_SETTINGS"};
+
+    private static final Map<String, Integer> sActionToMode =
+            new HashMap<String, Integer>(3);
+
+    static {
+        sActionToMode.put("SHOW_STATUSBAR", StatusBarController.STATUS_BAR_SHOW);
+        sActionToMode.put("EXPAND_NOTIFICATIONS", StatusBarController.STATUS_BAR_NOTIFICATION);
+        sActionToMode.put("EXPAND_SETTINGS", StatusBarController.STATUS_BAR_SETTINGS);
+    }
+
+    /**
+     * @return mode for StatusBarService.showStatusBar or -1 for unknown actions
+     */
+    public static int getModeForAction(String action) {
+        Integer mode = sActionToMode.get(action);
+        return mode != null ? mode : -1;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -42,14 +62,7 @@ public class ShortcutActivity extends Activity {
 
         Bundle extras = getIntent().getExtras();
 
-        //must match StatusBarService.ShowStatusBarModes
-        final String ids[] = {"SHOW_STATUSBAR", "EXPAND_NOTIFICATIONS", "EXPAND_SETTINGS"};
-
-        final Map<String, Integer> mActionToMode =
-                new HashMap<String, Integer>(3);
-        mActionToMode.put("SHOW_STATUSBAR", 0);
-        mActionToMode.put("EXPAND_NOTIFICATIONS", StatusBarController.STATUS_BAR_NOTIFICATION);
-        mActionToMode.put("EXPAND_SETTINGS", StatusBarController.STATUS_BAR_SETTINGS);
+        final String ids[] = sActionIds;
         final String names[] = new String[3];
         names[0] = getString(R.string.select_shortcut_show);
         names[1] = getString(R.string.select_shortcut_notifications);
@@ -58,10 +71,10 @@ public class ShortcutActivity extends Activity {
         if (extras != null) {
 
             String action = extras.getString("ACTION_TO_RUN");
-            if (action != null && mActionToMode.containsKey(action)) {
-                int mode = mActionToMode.get(action);
+            int mode = getModeForAction(action);
+            if (mode >= 0) {
 
-                StatusBarService sbs = StatusBarService.getInstance();
+                StatusBarService sbs = ServiceState.getService();
                 if (sbs != null) {
                     sbs.showStatusBar(mode);
                 }
@@ -80,6 +93,18 @@ public class ShortcutActivity extends Activity {
         showDialog(ids, names);
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        ForegroundTracker.activityResumed();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        ForegroundTracker.activityPaused();
+    }
+
     private void showDialog(final String ids[], final String names[]) {
 
         final AlertDialog.Builder builder = new AlertDialog.Builder(this);
@@ -0,0 +1,107 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import android.os.Build;
+
+/**
+ * Opens the notification or settings panel through the hidden
+ * StatusBarManager API. The methods are resolved once per process, on the
+ * first use.
+ */
+public final class StatusBarExpander {
+
+	private static final Method expandNotification, expandSettings;
+	private static final LatencyHistogram notificationLatency = new LatencyHistogram("expand notifications");
+	private static final LatencyHistogram settingsLatency = new LatencyHistogram("expand settings");
+	private static int failures;
+
+	static {
+		Method notification = null, settings = null;
+		try {
+			Class<?> clazz = Class.forName("android.app.StatusBarManager");
+			if (Build.VERSION.SDK_INT >= 17) {
+				notification = findMethod(clazz, "expandNotificationsPanel");
+				settings = findMethod(clazz, "expandSettingsPanel");
+			} else
+				notification = findMethod(clazz, "expand");
+		} catch (ClassNotFoundException e) {
+		}
+		expandNotification = notification;
+		expandSettings = settings;
+	}
+
+	private StatusBarExpander() {
+	}
+
+	private static Method findMethod(Class<?> clazz, String name) {
+		try {
+			Method method = clazz.getMethod(name);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException e) {
+			return null;
+		} catch (SecurityException e) {
+			return null;
+		}
+	}
+
+	public static boolean canExpandNotifications() {
+		return expandNotification != null;
+	}
+
+	public static boolean canExpandSettings() {
+		return expandSettings != null;
+	}
+
+	/**
+	 * Expands the requested panel, the settings panel falls back to
+	 * notifications where it is not available.
+	 * 
+	 * @param statusBarManager the "statusbar" system service
+	 * @return false when the panel could not be expanded
+	 */
+	public static boolean expand(Object statusBarManager, int panel) {
+		boolean settings = panel == StatusBarController.STATUS_BAR_SETTINGS && expandSettings != null;
+		Method method = settings ? expandSettings : expandNotification;
+		if (method == null || statusBarManager == null) {
+			failures++;
+			return false;
+		}
+		long start = System.nanoTime();
+		try {
+			method.invoke(statusBarManager);
+		} catch (InvocationTargetException e) {
+			failures++;
+			return false;
+		} catch (IllegalAccessException e) {
+			failures++;
+			return false;
+		}
+		(settings ? settingsLatency : notificationLatency).record(System.nanoTime() - start);
+		return true;
+	}
+
+	public static void appendDiagnostics(StringBuilder sb) {
+		sb.append("Status bar expansion (notifications ").append(canExpandNotifications() ? "yes" : "no").append(", settings ").append(canExpandSettings() ? "yes" : "no")
+				.append(", failures ").append(failures).append(")\n");
+		notificationLatency.appendTo(sb);
+		settingsLatency.appendTo(sb);
+	}
+}
@@ -16,30 +16,28 @@
 package cz.chladek.swipe_status_bar;
 
 import android.app.Activity;
-import android.content.SharedPreferences;
 import android.os.Bundle;
-import android.preference.PreferenceManager;
 import android.view.MotionEvent;
 
 public class StatusBarHelperActivity extends Activity {
 
 	public static final String STATUC_BAR_NAME = "cz.chladek.swipe_status_bar.StatusBar";
+	public static final String EXTRA_DISPATCH_TIME = "cz.chladek.swipe_status_bar.DispatchTime";
 
-	private SharedPreferences prefs;
 	private boolean first;
 
 	@Override
-	protected void onCreate(Bundle savedInstanceState) {
-		super.onCreate(savedInstanceState);
-		prefs = PreferenceManager.getDefaultSharedPreferences(this);
+	protected void onPause() {
+		super.onPause();
+		ForegroundTracker.activityPaused();
 	}
 
 	@Override
 	protected void onStop() {
 		super.onStop();
-		StatusBarService sbs = StatusBarService.getInstance();
+		StatusBarService sbs = ServiceState.getService();
 		if (sbs != null)
-			sbs.getStatusBarController().setOriginalDesktopState();
+			sbs.restoreDesktopState();
 		finish();
 	}
 
@@ -63,16 +61,20 @@ public class StatusBarHelperActivity extends Activity {
 	@Override
 	protected void onResume() {
 		super.onResume();
-		StatusBarService sbs = StatusBarService.getInstance();
+		ForegroundTracker.activityResumed();
+		StatusBarService sbs = ServiceState.getService();
 		if (sbs != null) {
 			StatusBarController sbc = sbs.getStatusBarController();
 			sbc.overrideExpandedDesktopStyle();
-			prefs = PreferenceManager.getDefaultSharedPreferences(this);
-			if (!prefs.getBoolean(getString(R.string.pref_key_show_only), false)) {
+			if (!sbs.getGestureConfig().showOnly) {
 				Bundle extras = getIntent().getExtras();
-				if (extras != null)
-					sbc.showStatusBar(extras.getInt(STATUC_BAR_NAME));
+				int mode = extras != null ? extras.getInt(STATUC_BAR_NAME) : StatusBarController.STATUS_BAR_SHOW;
+				if (mode != StatusBarController.STATUS_BAR_SHOW)
+					sbc.showStatusBar(mode);
 			}
+			long dispatchTime = getIntent().getLongExtra(EXTRA_DISPATCH_TIME, 0);
+			if (dispatchTime != 0)
+				sbs.getActionDispatcher().recordExpansion(ActionDispatcher.PATH_ACTIVITY, dispatchTime);
 		}
 	}
 }
\ No newline at end of file
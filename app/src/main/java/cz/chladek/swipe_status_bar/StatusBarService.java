@@ -16,55 +16,51 @@
 package cz.chladek.swipe_status_bar;
 
 import cz.chladek.swipe_status_bar.FullscreenDetector.OnFullscreenListener;
-import android.app.ActivityManager;
-import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.app.Service;
-import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.graphics.Color;
 import android.graphics.PixelFormat;
 import android.os.IBinder;
-import android.os.SystemClock;
 import android.os.Vibrator;
 import android.preference.PreferenceManager;
-import android.view.Gravity;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.View.OnKeyListener;
 import android.view.View.OnTouchListener;
-import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.view.WindowManager.LayoutParams;
-import android.widget.LinearLayout;
 
-public class StatusBarService extends Service implements OnTouchListener, OnKeyListener {
+public class StatusBarService extends Service implements OnTouchListener, OnKeyListener, OnSharedPreferenceChangeListener {
 
-	private static StatusBarService instance;
-	private ActivityManager activityManager;
 	private Vibrator vibrator;
 	private SharedPreferences prefs;
+	private volatile GestureConfig config;
 	private WindowManager windowManager;
-	private View triggerArea, leftView, rightView, viewAlternative, viewPermanently;
-	private LayoutParams layoutParams, layoutParamsAlternative, layoutParamsPernamently;
-	private float firstTouch;
+	private View viewAlternative, viewPermanently;
+	private LayoutParams layoutParamsPernamently;
+	private AlternativeWindow alternativeWindow;
 	private Intent statusBarActivity;
-	private String packageName;
-	private LinearLayout gestureArea;
+	private final EdgeOverlay[] overlays = new EdgeOverlay[GestureZones.EDGE_COUNT];
+	// parsed custom zones per edge, empty edges use the calibrated area
+	private final ZoneIndex[] customZones = new ZoneIndex[GestureZones.EDGE_COUNT];
+	private AreaGeometry areaGeometry;
+	private float areaPosition, areaWidth;
+	private int areaHeight, areaColor = Color.TRANSPARENT;
+	private long hysteresis;
 	private FullscreenDetector detector;
-	private boolean areaVisible, inWindow;
+	private boolean areaVisible;
 	private ScreenListener screenListener;
+	private KeepAlive keepAlive;
+	private TouchRecorder recorder;
+	private boolean created;
 
 	private StatusBarController statusBarController;
-
-	private static boolean running;
-
-	public static StatusBarService getInstance() {
-		return instance;
-	}
+	private ActionDispatcher dispatcher;
+	private ExpansionWindow expansionWindow;
 
 	@Override
 	public IBinder onBind(Intent intent) {
@@ -74,39 +70,27 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
 	@Override
 	public void onCreate() {
 		super.onCreate();
-		activityManager = (ActivityManager) this.getSystemService(Context.ACTIVITY_SERVICE);
-		packageName = getApplicationContext().getPackageName();
-
 		prefs = PreferenceManager.getDefaultSharedPreferences(this);
+		config = GestureConfig.load(this, prefs);
+		prefs.registerOnSharedPreferenceChangeListener(this);
 		vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
 
 		statusBarActivity = new Intent(this, StatusBarHelperActivity.class);
 		statusBarActivity.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
 
-		gestureArea = new LinearLayout(this);
-		gestureArea.setOrientation(LinearLayout.HORIZONTAL);
-
-		leftView = new View(this);
-		rightView = new View(this);
-		triggerArea = new View(this);
-		triggerArea.setOnTouchListener(this);
-
-		gestureArea.addView(leftView);
-		gestureArea.addView(triggerArea);
-		gestureArea.addView(rightView);
-
-		int height = prefs.getInt(getString(R.string.pref_key_swipe_sensitivity), 25);
-		layoutParams = new WindowManager.LayoutParams(LayoutParams.MATCH_PARENT, height, LayoutParams.TYPE_PRIORITY_PHONE, LayoutParams.FLAG_NOT_FOCUSABLE, PixelFormat.TRANSLUCENT);
-		layoutParams.gravity = Gravity.TOP;
+		areaGeometry = new AreaGeometry();
+		for (int edge = 0; edge < GestureZones.EDGE_COUNT; edge++)
+			customZones[edge] = new ZoneIndex();
+		loadZones();
+		areaHeight = prefs.getInt(getString(R.string.pref_key_swipe_sensitivity), 25);
+		hysteresis = Long.parseLong(prefs.getString(getString(R.string.pref_key_window_hysteresis), Long.toString(GestureWindow.DEFAULT_HYSTERESIS)));
 
 		detector = new FullscreenDetector(this);
 		detector.addOnFullscreenListener(onFullscreenListener);
 
 		windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
-		if (detector.isFullscreen()) {
-			windowManager.addView(gestureArea, layoutParams);
-			inWindow = true;
-		}
+
+		setRecording(prefs.getBoolean(getString(R.string.pref_key_record_touches), false));
 
 		float position = prefs.getFloat(getString(R.string.pref_key_area_position), 0.5f);
 		float width = prefs.getFloat(getString(R.string.pref_key_area_width), 1);
@@ -116,6 +100,13 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
 			setAreaVisibility(true);
 
 		statusBarController = new StatusBarController(this);
+		dispatcher = new ActionDispatcher(vibrator, dispatchTarget);
+		expansionWindow = new ExpansionWindow(this, windowManager, new ExpansionWindow.OnDismissListener() {
+			@Override
+			public void onDismiss() {
+				dispatcher.restore();
+			}
+		});
 
 		viewAlternative = new View(this);
 		viewAlternative.setOnTouchListener(this);
@@ -124,33 +115,62 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
 		viewPermanently = new View(this);
         viewPermanently.setOnKeyListener(this);
 
-		layoutParamsAlternative = new WindowManager.LayoutParams(0, 0, LayoutParams.TYPE_SYSTEM_ALERT, LayoutParams.FLAG_FORCE_NOT_FULLSCREEN | LayoutParams.FLAG_WATCH_OUTSIDE_TOUCH
-				| LayoutParams.FLAG_NOT_TOUCH_MODAL, PixelFormat.TRANSLUCENT);
+		alternativeWindow = new AlternativeWindow(windowManager, viewAlternative);
+		if (config.alternativeMode)
+			alternativeWindow.attach();
 
 		layoutParamsPernamently = new WindowManager.LayoutParams(0, 0, 0,0, LayoutParams.TYPE_PHONE, LayoutParams.FLAG_FORCE_NOT_FULLSCREEN | LayoutParams.FLAG_NOT_TOUCHABLE | LayoutParams.FLAG_NOT_FOCUSABLE, PixelFormat.TRANSLUCENT);
 
+		keepAlive = new KeepAlive(this, prefs);
 		forceRunning(true);
+		created = true;
 
 		screenListener = new ScreenListener(this);
 
 		if (prefs.getBoolean(getString(R.string.pref_key_status_bar_permanent_visibility), false))
 			permanentVisibility(true);
 
-		instance = this;
-		running = true;
+		ServiceState.serviceCreated(this);
 	}
 
 	private OnFullscreenListener onFullscreenListener = new OnFullscreenListener() {
 		@Override
 		public void fullscreenChanged(boolean fullscreen) {
-			if (fullscreen && !inWindow) {
-				windowManager.addView(gestureArea, layoutParams);
-				inWindow = true;
-			} else if (!fullscreen && inWindow) {
-				windowManager.removeView(gestureArea);
-				inWindow = false;
+			for (EdgeOverlay overlay : overlays)
+				if (overlay != null)
+					overlay.getWindow().setActive(fullscreen);
+		}
+	};
+
+	private ActionDispatcher.Target dispatchTarget = new ActionDispatcher.Target() {
+		@Override
+		public boolean onWindowStage(int mode) {
+			if (config.alternativeMode)
+				return alternativeWindow.arm();
+			else if (config.windowExpansion)
+				return expansionWindow.show(mode != StatusBarController.STATUS_BAR_SHOW);
+			return true;
+		}
+
+		@Override
+		public void onExpandStage(int mode, long dispatchTime) {
+			GestureConfig config = StatusBarService.this.config;
+			if (config.alternativeMode || config.windowExpansion) {
+				statusBarController.overrideExpandedDesktopStyle();
+				if ((mode == StatusBarController.STATUS_BAR_SETTINGS) || (mode == StatusBarController.STATUS_BAR_NOTIFICATION))
+					statusBarController.showStatusBar(mode);
+				dispatcher.recordExpansion(config.alternativeMode ? ActionDispatcher.PATH_ALTERNATIVE : ActionDispatcher.PATH_WINDOW, dispatchTime);
+			} else {
+				statusBarActivity.putExtra(StatusBarHelperActivity.STATUC_BAR_NAME, mode);
+				statusBarActivity.putExtra(StatusBarHelperActivity.EXTRA_DISPATCH_TIME, dispatchTime);
+				startActivity(statusBarActivity);
 			}
 		}
+
+		@Override
+		public void onRestoreStage() {
+			statusBarController.setOriginalDesktopState();
+		}
 	};
 
 //	public boolean isFullscreen() {
@@ -159,49 +179,98 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
 
 	public void setAreaVisibility(boolean visible) {
 		if (visible && !areaVisible) {
-			triggerArea.setBackgroundColor(0xAA33B5E5);
+			setAreaColor(0xAA33B5E5);
 			areaVisible = true;
-		} else if (!visible && areaVisible && !prefs.getBoolean(getString(R.string.pref_key_permanent_visibility), false)) {
-			triggerArea.setBackgroundColor(Color.TRANSPARENT);
+		} else if (!visible && areaVisible && !config.permanentVisibility) {
+			setAreaColor(Color.TRANSPARENT);
 			areaVisible = false;
 		}
 	}
 
+	private void setAreaColor(int color) {
+		areaColor = color;
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null)
+				overlay.getArea().setAreaColor(color);
+	}
+
+	private void setRecording(boolean enable) {
+		if (enable && recorder == null)
+			recorder = new TouchRecorder(this);
+		else if (!enable)
+			recorder = null;
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null)
+				overlay.setRecorder(recorder);
+	}
+
 	public void forceRunning(boolean enable) {
-		Intent intent = new Intent(getApplicationContext(), StatusBarService.class);
-		PendingIntent pending = PendingIntent.getService(getApplicationContext(), 0, intent, 0);
-		AlarmManager alarm = (AlarmManager) getApplicationContext().getSystemService(Context.ALARM_SERVICE);
-		alarm.cancel(pending);
-		if (enable) {
-			String intervalString = prefs.getString(getString(R.string.pref_key_check_life_interval), "2500");
-			int interval = Integer.parseInt(intervalString);
-			alarm.setRepeating(AlarmManager.ELAPSED_REALTIME, SystemClock.elapsedRealtime(), interval, pending);
-		}
+		keepAlive.setEnabled(enable);
+	}
+
+	public void reloadKeepAlive() {
+		keepAlive.reload();
 	}
 
 	@Override
 	public int onStartCommand(Intent intent, int flags, int startId) {
+		if (intent != null && intent.getBooleanExtra(KeepAlive.EXTRA_WAKEUP, false))
+			keepAlive.onWakeup(!created);
+		created = false;
 		return START_STICKY;
 	}
 
+	@Override
+	public void onTaskRemoved(Intent rootIntent) {
+		super.onTaskRemoved(rootIntent);
+		keepAlive.onServiceKilled();
+	}
+
+	@Override
+	public void onSharedPreferenceChanged(SharedPreferences prefs, String key) {
+		config = GestureConfig.load(this, prefs);
+		if (config.alternativeMode)
+			alternativeWindow.attach();
+		else if (!alternativeWindow.isArmed())
+			alternativeWindow.detach();
+		if (key.equals(getString(R.string.pref_key_window_hysteresis)))
+			hysteresis = Long.parseLong(prefs.getString(key, Long.toString(GestureWindow.DEFAULT_HYSTERESIS)));
+		else if (key.equals(getString(R.string.pref_key_record_touches)))
+			setRecording(prefs.getBoolean(key, false));
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null) {
+				overlay.configure(config);
+				overlay.getWindow().setHysteresis(hysteresis);
+			}
+		boolean zonesChanged = key.equals(getString(R.string.pref_key_gesture_zones));
+		if (zonesChanged)
+			loadZones();
+		if (zonesChanged || key.equals(getString(R.string.pref_key_expand_settings)))
+			updateView(areaPosition, areaWidth);
+	}
+
 	@Override
 	public void onDestroy() {
 		super.onDestroy();
-		if (inWindow && windowManager != null && gestureArea != null)
-			windowManager.removeView(gestureArea);
+		prefs.unregisterOnSharedPreferenceChangeListener(this);
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null)
+				overlay.getWindow().detach();
 		screenListener.setEnabled(false);
 		detector.dispose();
-		running = false;
+		keepAlive.onServiceKilled();
+		expansionWindow.dismiss();
+		alternativeWindow.detach();
+		dispatcher.dispose();
+		statusBarController.dispose();
+		ServiceState.serviceDestroyed();
 	}
 
 	@Override
 	public boolean onKey(View v, int keyCode, KeyEvent event) {
-		if (v == viewAlternative) {
-			try {
-				windowManager.removeView(viewAlternative);
-			} catch (Exception e) {
-			}
-			statusBarController.setOriginalDesktopState();
+		if (v == viewAlternative && alternativeWindow.isArmed()) {
+			alternativeWindow.disarm();
+			dispatcher.restore();
 		}
 		return false;
 	}
@@ -211,77 +280,59 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
         if(v == viewPermanently) {
             return false;
         }
-        MainActivity activity = MainActivity.getInstance();
-        if (activity != null) {
-            ComponentName cn = activityManager.getRunningTasks(1).get(0).topActivity;
-            if (!packageName.equals(cn.getPackageName()))
-                activity.finish();
-        }
-
         if (v == viewAlternative) {
-            try {
-                windowManager.removeView(viewAlternative);
-            } catch (Exception e) {
+            if (alternativeWindow.isArmed()) {
+                alternativeWindow.disarm();
+                dispatcher.restore();
             }
-            statusBarController.setOriginalDesktopState();
             return true;
         }
 
-        switch (me.getAction()) {
-            case MotionEvent.ACTION_DOWN:
-                firstTouch = me.getRawY();
-                break;
-            case MotionEvent.ACTION_MOVE:
-                boolean multiTouchMode = prefs.getBoolean(getString(R.string.pref_key_multi_touch), false);
-                if (multiTouchMode && me.getPointerCount() < 2)
-                    return false;
-                if (me.getRawY() - firstTouch > 5) {
-                    if (prefs.getBoolean(getString(R.string.pref_key_vibrate), false))
-                        vibrator.vibrate(prefs.getInt(getString(R.string.pref_key_vibrate_strength), 15));
-
-                    boolean openSettings = prefs.getBoolean(getString(R.string.pref_key_expand_settings), false) && me.getX() > v.getWidth() / 2;
-                    boolean alternativeMode = prefs.getBoolean(getString(R.string.pref_key_alternative_mode), false);
-                    if (alternativeMode) {
-                        try {
-                            windowManager.addView(viewAlternative, layoutParamsAlternative);
-                        } catch (Exception e) {
-                        }
-                        statusBarController.overrideExpandedDesktopStyle();
-                        if (!prefs.getBoolean(getString(R.string.pref_key_show_only), false))
-                            statusBarController.showStatusBar(openSettings ? StatusBarController.STATUS_BAR_SETTINGS : StatusBarController.STATUS_BAR_NOTIFICATION);
-                    } else {
-                        statusBarActivity.putExtra(StatusBarHelperActivity.STATUC_BAR_NAME, openSettings ? StatusBarController.STATUS_BAR_SETTINGS : StatusBarController.STATUS_BAR_NOTIFICATION);
-                        startActivity(statusBarActivity);
-                    }
-                    firstTouch = Float.MAX_VALUE;
-                }
-                break;
+        EdgeOverlay overlay = findOverlay(v);
+        if (overlay == null)
+            return false;
+
+        long start = System.nanoTime();
+        int decision = recognize(overlay.getEngine(), me);
+        overlay.getLatency().record(System.nanoTime() - start);
+        if (recorder != null && decision != GestureEngine.DECISION_NONE)
+            recorder.label(decision);
+        if (decision != GestureEngine.DECISION_NONE) {
+            GestureConfig config = this.config;
+            GestureAreaView area = overlay.getArea();
+            int mode = area.getZones().getAction(area.getTrackedZone());
+            if (config.showOnly)
+                mode = StatusBarController.STATUS_BAR_SHOW;
+            expand(mode, config.vibrate ? config.vibrateStrength : 0);
         }
         return true;
     }
 
+    private EdgeOverlay findOverlay(View v) {
+        for (EdgeOverlay overlay : overlays)
+            if (overlay != null && overlay.getArea() == v)
+                return overlay;
+        return null;
+    }
+
+    private int recognize(GestureEngine gestureEngine, MotionEvent me) {
+        return gestureEngine.onTouchEvent(me.getActionMasked(), me.getX(), me.getRawY(), me.getPointerCount(), me.getEventTime() * 1000000L);
+    }
+
     public void showStatusBar(int mode) {
-        MainActivity activity = MainActivity.getInstance();
-        if (activity != null) {
-            ComponentName cn = activityManager.getRunningTasks(1).get(0).topActivity;
-            if (!packageName.equals(cn.getPackageName()))
-                activity.finish();
-        }
+        expand(mode, 0);
+    }
 
-        boolean alternativeMode = prefs.getBoolean(getString(R.string.pref_key_alternative_mode), false);
-        if (alternativeMode) {
-            try {
-                windowManager.addView(viewAlternative, layoutParamsAlternative);
-            } catch (Exception e) {
-            }
-            statusBarController.overrideExpandedDesktopStyle();
-            if ((mode == StatusBarController.STATUS_BAR_SETTINGS) || (mode == StatusBarController.STATUS_BAR_NOTIFICATION)) {
-                statusBarController.showStatusBar(mode);
-            }
-        } else {
-            statusBarActivity.putExtra(StatusBarHelperActivity.STATUC_BAR_NAME, mode);
-            startActivity(statusBarActivity);
-        }
+    private void expand(int mode, int vibrate) {
+        dispatcher.dispatch(mode, vibrate);
+    }
+
+    /**
+     * Restores the desktop state changed for an expansion, on the dispatcher
+     * thread.
+     */
+    public void restoreDesktopState() {
+        dispatcher.restore();
     }
 
     public void permanentVisibility(boolean flag) {
@@ -299,37 +350,107 @@ public class StatusBarService extends Service implements OnTouchListener, OnKeyL
 //	}
 
 	public void setAreaHeight(int height) {
-		if (inWindow) {
-			ViewGroup.LayoutParams layout = gestureArea.getLayoutParams();
-			layout.height = height;
-			windowManager.updateViewLayout(gestureArea, layout);
-		}
+		areaHeight = height;
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null)
+				overlay.setThickness(height);
 	}
 
-	public void setAreaWidth(float width) {
-		float position = prefs.getFloat(getString(R.string.pref_key_area_position), 0.5f);
+	public void setArea(float position, float width) {
 		updateView(position, width);
 	}
 
+	public void setAreaWidth(float width) {
+		updateView(areaPosition, width);
+	}
+
 	public void setAreaPosition(float position) {
-		float width = prefs.getFloat(getString(R.string.pref_key_area_width), 1);
-		updateView(position, width);
+		updateView(position, areaWidth);
 	}
 
 	private void updateView(float position, float width) {
-		triggerArea.setLayoutParams(new LinearLayout.LayoutParams(1, LayoutParams.MATCH_PARENT, width));
-		float widthHalf = width * 0.5f;
-		float wR = Math.max((1 - position) - widthHalf, 0);
-		float wL = Math.min(position - widthHalf, 1 - width - wR);
-		leftView.setLayoutParams(new LinearLayout.LayoutParams(1, LayoutParams.MATCH_PARENT, wL));
-		rightView.setLayoutParams(new LinearLayout.LayoutParams(1, LayoutParams.MATCH_PARENT, wR));
+		areaPosition = position;
+		areaWidth = width;
+		for (int edge = 0; edge < GestureZones.EDGE_COUNT; edge++) {
+			EdgeOverlay overlay = overlays[edge];
+			ZoneIndex custom = customZones[edge];
+			// the top edge always has at least the calibrated area
+			boolean used = edge == GestureZones.EDGE_TOP || custom.size() > 0;
+			if (!used) {
+				if (overlay != null) {
+					overlay.getWindow().detach();
+					overlays[edge] = null;
+				}
+				continue;
+			}
+			boolean created = overlay == null;
+			if (created)
+				overlay = overlays[edge] = createOverlay(edge);
+
+			ZoneIndex zones = overlay.getArea().getZones();
+			zones.set(custom);
+			if (custom.size() == 0) {
+				areaGeometry.update(position, width);
+				float start = areaGeometry.getTriggerStart();
+				float end = areaGeometry.getTriggerEnd();
+				if (config.expandSettings) {
+					float middle = (start + end) / 2;
+					zones.add(start, middle, StatusBarController.STATUS_BAR_NOTIFICATION);
+					zones.add(middle, end, StatusBarController.STATUS_BAR_SETTINGS);
+				} else
+					zones.add(start, end, StatusBarController.STATUS_BAR_NOTIFICATION);
+			}
+			overlay.getArea().zonesChanged();
+			if (created)
+				overlay.getWindow().setActive(detector.isFullscreen());
+		}
 	}
 
-	public static boolean isRunning() {
-		return running;
+	private void loadZones() {
+		String spec = config.zones;
+		for (int edge = 0; edge < GestureZones.EDGE_COUNT; edge++) {
+			customZones[edge].clear();
+			if (spec.length() > 0)
+				GestureZones.parse(spec, edge, customZones[edge]);
+		}
+	}
+
+	private EdgeOverlay createOverlay(int edge) {
+		EdgeOverlay overlay = new EdgeOverlay(this, windowManager, edge, areaHeight, this);
+		overlay.configure(config);
+		overlay.getWindow().setHysteresis(hysteresis);
+		overlay.getArea().setAreaColor(areaColor);
+		overlay.setRecorder(recorder);
+		return overlay;
 	}
 
 	public StatusBarController getStatusBarController() {
 		return statusBarController;
 	}
+
+	public ActionDispatcher getActionDispatcher() {
+		return dispatcher;
+	}
+
+	public GestureConfig getGestureConfig() {
+		return config;
+	}
+
+	public String getDiagnostics() {
+		StringBuilder sb = new StringBuilder();
+		ServiceState.appendDiagnostics(sb);
+		keepAlive.appendDiagnostics(sb);
+		detector.appendDiagnostics(sb);
+		for (EdgeOverlay overlay : overlays)
+			if (overlay != null)
+				overlay.appendDiagnostics(sb);
+		if (recorder != null)
+			recorder.appendDiagnostics(sb);
+		dispatcher.appendDiagnostics(sb);
+		alternativeWindow.appendDiagnostics(sb);
+		StatusBarExpander.appendDiagnostics(sb);
+		statusBarController.appendDiagnostics(sb);
+		sb.append("Preference commits: ").append(PreferenceWriter.getDiskWrites()).append('\n');
+		return sb.toString();
+	}
 }
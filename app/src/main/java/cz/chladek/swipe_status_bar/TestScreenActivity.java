@@ -18,19 +18,21 @@ package cz.chladek.swipe_status_bar;
 import cz.chladek.swipe_status_bar.R;
 import android.app.Activity;
 import android.content.SharedPreferences;
-import android.content.SharedPreferences.Editor;
 import android.os.Bundle;
 import android.preference.PreferenceManager;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.SeekBar;
 import android.widget.SeekBar.OnSeekBarChangeListener;
+import android.widget.TextView;
 
-public class TestScreenActivity extends Activity implements OnSeekBarChangeListener {
+public class TestScreenActivity extends Activity implements OnSeekBarChangeListener, AreaUpdateCoalescer.OnAppliedListener {
 
-	private Editor editor;
+	private PreferenceWriter writer;
 	private SeekBar sensitivitySB, widthSB, positionSB;
 	private SharedPreferences prefs;
+	private AreaUpdateCoalescer coalescer;
+	private TextView updateStatsTV;
 
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
@@ -38,7 +40,7 @@ public class TestScreenActivity extends Activity implements OnSeekBarChangeListe
 		setContentView(R.layout.test_screen_layout);
 
 		prefs = PreferenceManager.getDefaultSharedPreferences(getApplicationContext());
-		editor = prefs.edit();
+		writer = new PreferenceWriter(prefs);
 
 		sensitivitySB = (SeekBar) findViewById(R.id.swipeSensitivitySB);
 		sensitivitySB.setProgress(prefs.getInt(getString(R.string.pref_key_swipe_sensitivity), 20));
@@ -52,34 +54,62 @@ public class TestScreenActivity extends Activity implements OnSeekBarChangeListe
 		positionSB.setProgress((int) (prefs.getFloat(getString(R.string.pref_key_area_position), 0.5f) * 10000));
 		positionSB.setOnSeekBarChangeListener(this);
 
+		coalescer = new AreaUpdateCoalescer(positionSB.getProgress() / 10000f, widthSB.getProgress() / 10000f);
+		coalescer.setOnAppliedListener(this);
+		updateStatsTV = (TextView) findViewById(R.id.updateStatsTV);
+		onApplied(coalescer);
+
 		((ImageView) findViewById(R.id.gift_small_iv)).setVisibility(MainActivity.giftSmall ? View.VISIBLE : View.INVISIBLE);
 		((ImageView) findViewById(R.id.gift_medium_iv)).setVisibility(MainActivity.giftMedium ? View.VISIBLE : View.INVISIBLE);
 		((ImageView) findViewById(R.id.gift_large_iv)).setVisibility(MainActivity.giftLarge ? View.VISIBLE : View.INVISIBLE);
 
-		StatusBarService sbs = StatusBarService.getInstance();
+		StatusBarService sbs = ServiceState.getService();
 		if (sbs != null)
 			sbs.setAreaVisibility(true);
 	}
 
+	@Override
+	protected void onResume() {
+		super.onResume();
+		ForegroundTracker.activityResumed();
+	}
+
+	@Override
+	protected void onPause() {
+		super.onPause();
+		ForegroundTracker.activityPaused();
+	}
+
 	@Override
 	protected void onStop() {
 		super.onStop();
-		StatusBarService sbs = StatusBarService.getInstance();
+		writer.flush();
+		StatusBarService sbs = ServiceState.getService();
 		if (sbs != null)
 			sbs.setAreaVisibility(false);
 		finish();
 	}
 
+	@Override
+	protected void onDestroy() {
+		super.onDestroy();
+		coalescer.cancel();
+	}
+
 	@Override
 	public void onProgressChanged(SeekBar sb, int progress, boolean fromUser) {
-		StatusBarService sbs = StatusBarService.getInstance();
-		if (fromUser && sbs != null)
+		if (fromUser)
 			if (sb == sensitivitySB)
-				sbs.setAreaHeight(progress + 5);
+				coalescer.setHeight(progress + 5);
 			else if (sb == widthSB)
-				sbs.setAreaWidth(progress / 10000f);
+				coalescer.setWidth(progress / 10000f);
 			else if (sb == positionSB)
-				sbs.setAreaPosition(progress / 10000f);
+				coalescer.setPosition(progress / 10000f);
+	}
+
+	@Override
+	public void onApplied(AreaUpdateCoalescer coalescer) {
+		updateStatsTV.setText(getString(R.string.test_update_stats, coalescer.getApplied(), coalescer.getMerged()));
 	}
 
 	@Override
@@ -90,11 +120,10 @@ public class TestScreenActivity extends Activity implements OnSeekBarChangeListe
 	public void onStopTrackingTouch(SeekBar sb) {
 		int progress = sb.getProgress();
 		if (sb == sensitivitySB)
-			editor.putInt(getString(R.string.pref_key_swipe_sensitivity), progress + 5);
+			writer.putInt(getString(R.string.pref_key_swipe_sensitivity), progress + 5);
 		else if (sb == widthSB)
-			editor.putFloat(getString(R.string.pref_key_area_width), progress / 10000f);
+			writer.putFloat(getString(R.string.pref_key_area_width), progress / 10000f);
 		else if (sb == positionSB)
-			editor.putFloat(getString(R.string.pref_key_area_position), progress / 10000f);
-		editor.commit();
+			writer.putFloat(getString(R.string.pref_key_area_position), progress / 10000f);
 	}
 }
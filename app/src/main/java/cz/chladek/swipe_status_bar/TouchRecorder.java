@@ -0,0 +1,118 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import android.content.Context;
+
+/**
+ * Records the touch events seen by the gesture windows to {@link #FILE_NAME}
+ * in the external files dir, for replaying them on a JVM with the benchmarks
+ * TraceReplay runner. Events are recorded before they are matched with the
+ * trigger zones, in screen coordinates. Each gesture is labeled with the
+ * decision made on the device and appended to the file on a background
+ * thread when it ends.
+ */
+public class TouchRecorder {
+
+	public static final String FILE_NAME = "touches.trace";
+
+	private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final File file;
+	private final TouchTrace trace;
+	private volatile int recorded, failed;
+
+	public TouchRecorder(Context context) {
+		File dir = context.getExternalFilesDir(null);
+		file = new File(dir != null ? dir : context.getFilesDir(), FILE_NAME);
+		trace = new TouchTrace();
+	}
+
+	/**
+	 * @param zone trigger zone the gesture started in, -1 if none
+	 * @param rawX screen position
+	 * @param rawY screen position
+	 * @param originX screen position of the gesture window
+	 * @param originY screen position of the gesture window
+	 */
+	public void record(int edge, int zone, int action, float rawX, float rawY, float originX, float originY, int pointerCount, long timestampNanos) {
+		if (action == GestureEngine.ACTION_DOWN) {
+			trace.clear();
+			trace.setEdge(edge);
+			trace.setZone(zone);
+			trace.setOrigin(originX, originY);
+		}
+		trace.add(action, rawX, rawY, pointerCount, timestampNanos);
+		if (action == GestureEngine.ACTION_UP || action == GestureEngine.ACTION_CANCEL)
+			save();
+	}
+
+	/**
+	 * Labels the gesture being recorded with the decision made for its last
+	 * event. Decisions are made on moves only, before the gesture is saved.
+	 */
+	public void label(int decision) {
+		trace.setLabel(decision);
+	}
+
+	private void save() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + trace.size() * 14);
+		try {
+			trace.write(new DataOutputStream(bytes));
+		} catch (IOException e) {
+			failed++;
+			return;
+		}
+		final byte[] data = bytes.toByteArray();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				FileOutputStream out = null;
+				try {
+					boolean header = file.length() == 0;
+					out = new FileOutputStream(file, true);
+					if (header) {
+						DataOutputStream dos = new DataOutputStream(out);
+						TouchTrace.writeHeader(dos);
+						dos.flush();
+					}
+					out.write(data);
+					recorded++;
+				} catch (IOException e) {
+					failed++;
+				} finally {
+					if (out != null)
+						try {
+							out.close();
+						} catch (IOException e) {
+						}
+				}
+			}
+		});
+	}
+
+	public void appendDiagnostics(StringBuilder sb) {
+		sb.append("Touch traces: ").append(recorded).append(" recorded, ").append(failed).append(" failed, ").append(file.getPath()).append('\n');
+	}
+}
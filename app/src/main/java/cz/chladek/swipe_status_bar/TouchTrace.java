@@ -0,0 +1,237 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Touch events of one gesture in screen coordinates, with the origin of the
+ * gesture window they were seen by. {@link GestureEngine} gets x relative to
+ * the window, {@link #getX(int)} - {@link #getOriginX()}, and raw y. Traces
+ * are stored in a compact binary format, a file header followed by any number
+ * of traces, each one being
+ * 
+ * <pre>
+ * byte edge, byte label, byte zone, float originX, float originY, int count,
+ * count * (byte action, byte pointerCount, float x, float y, int micros since the first event)
+ * </pre>
+ * 
+ * The label is the decision expected for the gesture, or for recorded traces
+ * the one that was made on the device. The zone is the trigger zone the
+ * gesture started in, -1 for gestures the window did not pass on. Version 1
+ * traces have neither zone nor origin, their x is relative to the window.
+ */
+public final class TouchTrace {
+
+	public static final int MAGIC = 0x53535452;
+	public static final int VERSION = 2;
+
+	private int edge, label, zone, size;
+	private float originX, originY;
+	private byte[] actions, pointers;
+	private float[] xs, ys;
+	private long[] times;
+
+	public TouchTrace() {
+		this(32);
+	}
+
+	public TouchTrace(int capacity) {
+		actions = new byte[capacity];
+		pointers = new byte[capacity];
+		xs = new float[capacity];
+		ys = new float[capacity];
+		times = new long[capacity];
+	}
+
+	public void clear() {
+		size = 0;
+		label = GestureEngine.DECISION_NONE;
+	}
+
+	public void add(int action, float x, float y, int pointerCount, long timestampNanos) {
+		if (size == actions.length)
+			grow();
+		actions[size] = (byte) action;
+		pointers[size] = (byte) pointerCount;
+		xs[size] = x;
+		ys[size] = y;
+		times[size] = timestampNanos;
+		size++;
+	}
+
+	private void grow() {
+		int capacity = actions.length * 2;
+		byte[] a = new byte[capacity];
+		System.arraycopy(actions, 0, a, 0, size);
+		actions = a;
+		byte[] p = new byte[capacity];
+		System.arraycopy(pointers, 0, p, 0, size);
+		pointers = p;
+		float[] x = new float[capacity];
+		System.arraycopy(xs, 0, x, 0, size);
+		xs = x;
+		float[] y = new float[capacity];
+		System.arraycopy(ys, 0, y, 0, size);
+		ys = y;
+		long[] t = new long[capacity];
+		System.arraycopy(times, 0, t, 0, size);
+		times = t;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getAction(int i) {
+		return actions[i];
+	}
+
+	public int getPointerCount(int i) {
+		return pointers[i];
+	}
+
+	public float getX(int i) {
+		return xs[i];
+	}
+
+	public float getY(int i) {
+		return ys[i];
+	}
+
+	public long getTimestamp(int i) {
+		return times[i];
+	}
+
+	public int getEdge() {
+		return edge;
+	}
+
+	public void setEdge(int edge) {
+		this.edge = edge;
+	}
+
+	/**
+	 * @return trigger zone the gesture started in, -1 if none
+	 */
+	public int getZone() {
+		return zone;
+	}
+
+	public void setZone(int zone) {
+		this.zone = zone;
+	}
+
+	public float getOriginX() {
+		return originX;
+	}
+
+	public float getOriginY() {
+		return originY;
+	}
+
+	/**
+	 * @param x screen position of the left edge of the gesture window
+	 * @param y screen position of its top edge
+	 */
+	public void setOrigin(float x, float y) {
+		originX = x;
+		originY = y;
+	}
+
+	public int getLabel() {
+		return label;
+	}
+
+	public void setLabel(int label) {
+		this.label = label;
+	}
+
+	public static void writeHeader(DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+	}
+
+	/**
+	 * @return version of the traces that follow
+	 */
+	public static int readHeader(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC)
+			throw new IOException("Not a touch trace");
+		int version = in.readByte();
+		if (version < 1 || version > VERSION)
+			throw new IOException("Unsupported touch trace version " + version);
+		return version;
+	}
+
+	public void write(DataOutput out) throws IOException {
+		out.writeByte(edge);
+		out.writeByte(label);
+		out.writeByte(zone);
+		out.writeFloat(originX);
+		out.writeFloat(originY);
+		out.writeInt(size);
+		long start = size > 0 ? times[0] : 0;
+		for (int i = 0; i < size; i++) {
+			out.writeByte(actions[i]);
+			out.writeByte(pointers[i]);
+			out.writeFloat(xs[i]);
+			out.writeFloat(ys[i]);
+			out.writeInt((int) ((times[i] - start) / 1000));
+		}
+	}
+
+	/**
+	 * Replaces the content with the next trace of the input.
+	 * 
+	 * @param version as returned by {@link #readHeader(DataInput)}
+	 * @return false at the end of the input
+	 */
+	public boolean read(DataInput in, int version) throws IOException {
+		int edge;
+		try {
+			edge = in.readByte();
+		} catch (EOFException e) {
+			return false;
+		}
+		this.edge = edge;
+		label = in.readByte();
+		if (version >= 2) {
+			zone = in.readByte();
+			originX = in.readFloat();
+			originY = in.readFloat();
+		} else {
+			// only gestures passed on by the window were recorded
+			zone = 0;
+			originX = originY = 0;
+		}
+		int count = in.readInt();
+		if (count < 0)
+			throw new IOException("Corrupted touch trace");
+		size = 0;
+		for (int i = 0; i < count; i++) {
+			int action = in.readByte();
+			int pointerCount = in.readByte();
+			float x = in.readFloat();
+			float y = in.readFloat();
+			add(action, x, y, pointerCount, in.readInt() * 1000L);
+		}
+		return true;
+	}
+}
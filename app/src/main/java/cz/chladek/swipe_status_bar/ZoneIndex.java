@@ -0,0 +1,146 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+/**
+ * Trigger zones along one screen edge, kept sorted by their start so a touch
+ * is matched with a binary search. Zones are given as fractions of the edge
+ * length and turned into pixels by {@link #layout(int)}. Zones may overlap,
+ * a position inside several of them is matched with the one starting last.
+ * Lookups and rebuilds within the current capacity do not allocate.
+ */
+public final class ZoneIndex {
+
+	private float[] starts, ends;
+	private int[] actions, pixelStarts, pixelEnds;
+	// largest end of the zone and of all zones starting before it
+	private int[] reachEnds;
+	private int size, length;
+
+	public ZoneIndex() {
+		this(4);
+	}
+
+	public ZoneIndex(int capacity) {
+		starts = new float[capacity];
+		ends = new float[capacity];
+		actions = new int[capacity];
+		pixelStarts = new int[capacity];
+		pixelEnds = new int[capacity];
+		reachEnds = new int[capacity];
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void add(float start, float end, int action) {
+		if (size == starts.length)
+			grow();
+		int i = size++;
+		// insertion sort, zone lists are short and usually added in order
+		while (i > 0 && starts[i - 1] > start) {
+			starts[i] = starts[i - 1];
+			ends[i] = ends[i - 1];
+			actions[i] = actions[i - 1];
+			i--;
+		}
+		starts[i] = start;
+		ends[i] = end;
+		actions[i] = action;
+		layoutFrom(i);
+	}
+
+	/**
+	 * Replaces the zones with the ones of the given index, keeping the current
+	 * layout length.
+	 */
+	public void set(ZoneIndex zones) {
+		size = 0;
+		for (int i = 0; i < zones.size; i++)
+			add(zones.starts[i], zones.ends[i], zones.actions[i]);
+	}
+
+	private void grow() {
+		int capacity = starts.length * 2;
+		float[] newStarts = new float[capacity];
+		float[] newEnds = new float[capacity];
+		int[] newActions = new int[capacity];
+		System.arraycopy(starts, 0, newStarts, 0, size);
+		System.arraycopy(ends, 0, newEnds, 0, size);
+		System.arraycopy(actions, 0, newActions, 0, size);
+		starts = newStarts;
+		ends = newEnds;
+		actions = newActions;
+		pixelStarts = new int[capacity];
+		pixelEnds = new int[capacity];
+		reachEnds = new int[capacity];
+		layout(length);
+	}
+
+	public void layout(int length) {
+		this.length = length;
+		layoutFrom(0);
+	}
+
+	private void layoutFrom(int first) {
+		for (int i = first; i < size; i++) {
+			pixelStarts[i] = Math.round(starts[i] * length);
+			pixelEnds[i] = Math.round(ends[i] * length);
+			reachEnds[i] = i > 0 ? Math.max(reachEnds[i - 1], pixelEnds[i]) : pixelEnds[i];
+		}
+	}
+
+	/**
+	 * @param position pixel position along the edge
+	 * @return index of the zone containing the position or -1
+	 */
+	public int find(float position) {
+		int low = 0, high = size - 1, found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (pixelStarts[mid] <= position) {
+				found = mid;
+				low = mid + 1;
+			} else
+				high = mid - 1;
+		}
+		// past the end of the last zone starting before it the position may
+		// still be inside a wider zone starting earlier
+		while (found >= 0 && position < reachEnds[found]) {
+			if (position < pixelEnds[found])
+				return found;
+			found--;
+		}
+		return -1;
+	}
+
+	public int getStart(int zone) {
+		return pixelStarts[zone];
+	}
+
+	public int getEnd(int zone) {
+		return pixelEnds[zone];
+	}
+
+	public int getAction(int zone) {
+		return actions[zone];
+	}
+}
@@ -0,0 +1,39 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.content;
+
+/**
+ * Stand-in for the Android interface, only the parts the preference writer
+ * uses.
+ */
+public interface SharedPreferences {
+
+	interface Editor {
+		Editor putInt(String key, int value);
+
+		Editor putFloat(String key, float value);
+
+		Editor putBoolean(String key, boolean value);
+
+		Editor putString(String key, String value);
+
+		boolean commit();
+
+		void apply();
+	}
+
+	Editor edit();
+}
@@ -0,0 +1,117 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.os;
+
+/**
+ * Stand-in for the Android class posting to the {@link Looper} stand-in.
+ */
+public class Handler {
+
+	public interface Callback {
+		boolean handleMessage(Message msg);
+	}
+
+	private final Looper looper;
+	private final Callback callback;
+
+	public Handler() {
+		this(Looper.myLooper(), null);
+	}
+
+	public Handler(Looper looper) {
+		this(looper, null);
+	}
+
+	public Handler(Looper looper, Callback callback) {
+		if (looper == null)
+			throw new RuntimeException("Can't create handler inside thread that has not called Looper.prepare()");
+		this.looper = looper;
+		this.callback = callback;
+	}
+
+	public final Looper getLooper() {
+		return looper;
+	}
+
+	public void handleMessage(Message msg) {
+	}
+
+	public void dispatchMessage(Message msg) {
+		if (msg.callback != null)
+			msg.callback.run();
+		else if (callback == null || !callback.handleMessage(msg))
+			handleMessage(msg);
+	}
+
+	public final Message obtainMessage(int what) {
+		Message m = Message.obtain();
+		m.what = what;
+		m.target = this;
+		return m;
+	}
+
+	public final Message obtainMessage(int what, int arg1, int arg2, Object obj) {
+		Message m = obtainMessage(what);
+		m.arg1 = arg1;
+		m.arg2 = arg2;
+		m.obj = obj;
+		return m;
+	}
+
+	public final boolean sendMessage(Message msg) {
+		return sendMessageDelayed(msg, 0);
+	}
+
+	public final boolean sendEmptyMessage(int what) {
+		return sendEmptyMessageDelayed(what, 0);
+	}
+
+	public final boolean sendEmptyMessageDelayed(int what, long delayMillis) {
+		return sendMessageDelayed(obtainMessage(what), delayMillis);
+	}
+
+	public final boolean sendMessageDelayed(Message msg, long delayMillis) {
+		return sendMessageAtTime(msg, SystemClock.uptimeMillis() + Math.max(0, delayMillis));
+	}
+
+	public boolean sendMessageAtTime(Message msg, long uptimeMillis) {
+		msg.target = this;
+		looper.enqueue(msg, uptimeMillis);
+		return true;
+	}
+
+	public final boolean post(Runnable r) {
+		return postDelayed(r, 0);
+	}
+
+	public final boolean postDelayed(Runnable r, long delayMillis) {
+		Message m = Message.obtain();
+		m.callback = r;
+		return sendMessageDelayed(m, delayMillis);
+	}
+
+	public final void removeCallbacks(Runnable r) {
+		looper.remove(this, 0, r);
+	}
+
+	public final void removeMessages(int what) {
+		looper.remove(this, what, null);
+	}
+
+	public final boolean hasMessages(int what) {
+		return looper.contains(this, what);
+	}
+}
@@ -0,0 +1,39 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.os;
+
+/**
+ * Stand-in for the Android class. Its looper is not looped, the messages are
+ * handled by calling {@link Looper#dispatchNext()} and the thread itself ends
+ * right after it is started.
+ */
+public class HandlerThread extends Thread {
+
+	private final Looper looper = new Looper();
+
+	public HandlerThread(String name) {
+		super(name);
+	}
+
+	public Looper getLooper() {
+		return looper;
+	}
+
+	public boolean quit() {
+		looper.clear();
+		return true;
+	}
+}
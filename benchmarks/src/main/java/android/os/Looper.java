@@ -0,0 +1,125 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.os;
+
+/**
+ * Stand-in for the Android class with a message queue ordered by time.
+ * Instead of loop() it offers {@link #dispatchNext()}, which lets benchmarks
+ * drive the queue one message at a time without waiting for delays.
+ */
+public final class Looper {
+
+	private static final ThreadLocal<Looper> looper = new ThreadLocal<Looper>();
+	private static Looper mainLooper;
+
+	private Message head;
+
+	Looper() {
+	}
+
+	public static void prepare() {
+		if (looper.get() != null)
+			throw new RuntimeException("Only one Looper may be created per thread");
+		looper.set(new Looper());
+	}
+
+	/**
+	 * Unlike the Android method it makes an existing looper of the thread the
+	 * main one, so tests sharing a thread can all call it.
+	 */
+	public static void prepareMainLooper() {
+		if (myLooper() == null)
+			prepare();
+		mainLooper = myLooper();
+	}
+
+	public static Looper myLooper() {
+		return looper.get();
+	}
+
+	public static Looper getMainLooper() {
+		return mainLooper;
+	}
+
+	void enqueue(Message msg, long when) {
+		msg.when = when;
+		if (head == null || when < head.when) {
+			msg.next = head;
+			head = msg;
+			return;
+		}
+		Message prev = head;
+		while (prev.next != null && prev.next.when <= when)
+			prev = prev.next;
+		msg.next = prev.next;
+		prev.next = msg;
+	}
+
+	void remove(Handler handler, int what, Runnable callback) {
+		Message prev = null;
+		Message m = head;
+		while (m != null) {
+			Message next = m.next;
+			if (m.target == handler && (callback != null ? m.callback == callback : m.callback == null && m.what == what)) {
+				if (prev == null)
+					head = next;
+				else
+					prev.next = next;
+				m.recycle();
+			} else
+				prev = m;
+			m = next;
+		}
+	}
+
+	boolean contains(Handler handler, int what) {
+		for (Message m = head; m != null; m = m.next)
+			if (m.target == handler && m.callback == null && m.what == what)
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return time the next message is due at, or -1 when the queue is empty
+	 */
+	public long nextWhen() {
+		return head != null ? head.when : -1;
+	}
+
+	/**
+	 * Dispatches the first message of the queue regardless of its time.
+	 * 
+	 * @return false when the queue was empty
+	 */
+	public boolean dispatchNext() {
+		Message m = head;
+		if (m == null)
+			return false;
+		head = m.next;
+		m.next = null;
+		m.target.dispatchMessage(m);
+		m.recycle();
+		return true;
+	}
+
+	public void clear() {
+		while (head != null) {
+			Message m = head;
+			head = m.next;
+			m.recycle();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.os;
+
+/**
+ * Stand-in for the Android class, just enough to run the animation code on a
+ * plain JVM.
+ */
+public final class Message {
+
+	public int what, arg1, arg2;
+	public Object obj;
+
+	Handler target;
+	Runnable callback;
+	long when;
+	Message next;
+
+	private static Message pool;
+
+	public static Message obtain() {
+		Message m = pool;
+		if (m == null)
+			return new Message();
+		pool = m.next;
+		m.next = null;
+		return m;
+	}
+
+	void recycle() {
+		what = arg1 = arg2 = 0;
+		obj = null;
+		target = null;
+		callback = null;
+		next = pool;
+		pool = this;
+	}
+}
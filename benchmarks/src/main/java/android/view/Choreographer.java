@@ -0,0 +1,72 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package android.view;
+
+import java.util.ArrayList;
+
+import android.os.Handler;
+
+/**
+ * Stand-in for the Android class, running frame callbacks as soon as the
+ * {@link android.os.Looper} stand-in dispatches them.
+ */
+public final class Choreographer implements Runnable {
+
+	public interface FrameCallback {
+		void doFrame(long frameTimeNanos);
+	}
+
+	private static final ThreadLocal<Choreographer> instance = new ThreadLocal<Choreographer>() {
+		@Override
+		protected Choreographer initialValue() {
+			return new Choreographer();
+		}
+	};
+
+	private final Handler handler = new Handler();
+	private final ArrayList<FrameCallback> callbacks = new ArrayList<FrameCallback>();
+	private final ArrayList<FrameCallback> running = new ArrayList<FrameCallback>();
+
+	private Choreographer() {
+	}
+
+	public static Choreographer getInstance() {
+		return instance.get();
+	}
+
+	public void postFrameCallback(FrameCallback callback) {
+		if (callbacks.isEmpty())
+			handler.post(this);
+		callbacks.add(callback);
+	}
+
+	public void removeFrameCallback(FrameCallback callback) {
+		while (callbacks.remove(callback))
+			;
+		if (callbacks.isEmpty())
+			handler.removeCallbacks(this);
+	}
+
+	@Override
+	public void run() {
+		long frameTimeNanos = System.nanoTime();
+		running.addAll(callbacks);
+		callbacks.clear();
+		for (int i = 0; i < running.size(); i++)
+			running.get(i).doFrame(frameTimeNanos);
+		running.clear();
+	}
+}
@@ -0,0 +1,72 @@
+package com.nineoldandroids.animation;
+
+/**
+ * Frame source with a manual clock, which lets animations be stepped frame by frame
+ * off the device with fully reproducible times. Nothing happens until
+ * {@link #nextFrame()} is called. Used by the benchmarks and tests only.
+ */
+public class FakeFrameSource implements FrameSource {
+
+	private final long frameInterval;
+	private long time;
+	private Callback pending;
+	private int frames;
+
+	/**
+	 * @param frameIntervalMillis
+	 *            time the clock advances by on every frame
+	 */
+	public FakeFrameSource(long frameIntervalMillis) {
+		frameInterval = frameIntervalMillis;
+	}
+
+	@Override
+	public long currentTimeMillis() {
+		return time;
+	}
+
+	@Override
+	public void postFrame(Callback callback, long lastFrameTime) {
+		pending = callback;
+	}
+
+	@Override
+	public void removeFrame(Callback callback) {
+		if (pending == callback)
+			pending = null;
+	}
+
+	/**
+	 * Moves the clock forward without running a frame.
+	 */
+	public void advance(long millis) {
+		time += millis;
+	}
+
+	/**
+	 * Advances the clock by one frame interval and runs the requested frame.
+	 * 
+	 * @return false when no frame was requested
+	 */
+	public boolean nextFrame() {
+		time += frameInterval;
+		Callback callback = pending;
+		if (callback == null)
+			return false;
+		pending = null;
+		frames++;
+		callback.doFrame(time);
+		return true;
+	}
+
+	public boolean hasPendingFrame() {
+		return pending != null;
+	}
+
+	/**
+	 * @return number of frames run so far
+	 */
+	public int getFrameCount() {
+		return frames;
+	}
+}
@@ -0,0 +1,77 @@
+package com.nineoldandroids.animation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.nineoldandroids.util.FloatProperty;
+
+/**
+ * One animation frame of a float property, set through a reflected setter or through a
+ * registered {@link FloatProperty}. Run with "-prof gc" to see the boxing of the reflected
+ * call. Lives in the animation package to reach the frame methods of PropertyValuesHolder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PropertyValuesHolderBenchmark {
+
+	public static class Target {
+		private float value;
+
+		public void setValue(float value) {
+			this.value = value;
+		}
+
+		public float getValue() {
+			return value;
+		}
+	}
+
+	public static class RegisteredTarget extends Target {
+	}
+
+	static {
+		PropertyValuesHolder.registerProperty(RegisteredTarget.class, new FloatProperty<Target>("value") {
+			@Override
+			public void setValue(Target object, float value) {
+				object.setValue(value);
+			}
+
+			@Override
+			public Float get(Target object) {
+				return object.getValue();
+			}
+		});
+	}
+
+	@Param({ "reflection", "property" })
+	public String setter;
+
+	private PropertyValuesHolder holder;
+	private Target target;
+	private float fraction;
+
+	@Setup
+	public void setup() {
+		target = "property".equals(setter) ? new RegisteredTarget() : new Target();
+		holder = PropertyValuesHolder.ofFloat("value", 0, 100);
+		holder.setupSetterAndGetter(target);
+		holder.init();
+	}
+
+	@Benchmark
+	public float frame() {
+		fraction = fraction >= 1 ? 0 : fraction + 1 / 64f;
+		holder.calculateValue(fraction);
+		holder.setAnimatedValue(target);
+		return target.value;
+	}
+}
@@ -0,0 +1,97 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import android.os.Looper;
+
+import com.nineoldandroids.animation.FakeFrameSource;
+import com.nineoldandroids.animation.ValueAnimator;
+
+/**
+ * A burst of animator starts, the start message, one frame and the cancel of all of
+ * them. Run with "-prof gc" to see the allocations of the animation loop per burst,
+ * neither benchmark should allocate once the queues have grown.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnimationStartBenchmark {
+
+	private static final int BURST = 500;
+	// coprime to BURST, cancels visit every animator in a scattered order
+	private static final int STRIDE = 7;
+
+	private Looper looper;
+	private FakeFrameSource frameSource;
+	private ValueAnimator[] animators;
+
+	@Setup
+	public void setup() {
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+		looper = Looper.myLooper();
+		frameSource = new FakeFrameSource(16);
+		ValueAnimator.setFrameSource(frameSource);
+		animators = new ValueAnimator[BURST];
+		for (int i = 0; i < BURST; i++) {
+			animators[i] = ValueAnimator.ofFloat(0, 1);
+			animators[i].setDuration(1000);
+			// every other animator goes through the delayed queue
+			animators[i].setStartDelay(i % 2);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		looper.clear();
+		ValueAnimator.setFrameSource(null);
+	}
+
+	@Benchmark
+	public int burst() {
+		for (int i = 0; i < BURST; i++)
+			animators[i].start();
+		while (looper.dispatchNext())
+			;
+		frameSource.nextFrame();
+		for (int i = 0; i < BURST; i++)
+			animators[i].cancel();
+		return frameSource.getFrameCount();
+	}
+
+	@Benchmark
+	public int burstOutOfOrder() {
+		for (int i = 0; i < BURST; i++)
+			animators[i].start();
+		while (looper.dispatchNext())
+			;
+		frameSource.nextFrame();
+		for (int i = 0; i < BURST; i++)
+			animators[i * STRIDE % BURST].cancel();
+		return frameSource.getFrameCount();
+	}
+}
@@ -0,0 +1,57 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cz.chladek.swipe_status_bar.FullscreenState;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FullscreenStateBenchmark {
+
+	private static final int WIDTH = 1080;
+	private static final int HEIGHT = 1920;
+	private static final int STATUS_BAR = 75;
+
+	private FullscreenState state;
+	private boolean toggle;
+
+	@Setup
+	public void setup() {
+		state = new FullscreenState();
+	}
+
+	@Benchmark
+	public boolean steady() {
+		return state.onLayout(HEIGHT - STATUS_BAR, WIDTH, HEIGHT);
+	}
+
+	@Benchmark
+	public boolean flip() {
+		toggle = !toggle;
+		return state.onLayout(toggle ? HEIGHT : HEIGHT - STATUS_BAR, WIDTH, HEIGHT);
+	}
+}
@@ -0,0 +1,88 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cz.chladek.swipe_status_bar.GestureEngine;
+
+/**
+ * Recognition cost per touch sequence. With "-prof gc" every benchmark should
+ * report no allocation, GestureEngineTest asserts that as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GestureEngineBenchmark {
+
+	private static final int SAMPLES = 32;
+	private static final long FRAME_NANOS = 8333333L;
+
+	private GestureEngine engine, flickEngine;
+	private int[] actions;
+	private float[] xs, ys;
+	private long[] times;
+
+	@Setup
+	public void setup() {
+		engine = new GestureEngine();
+		engine.setThresholds(GestureEngine.DEFAULT_MIN_DISTANCE, 200);
+		flickEngine = new GestureEngine();
+		flickEngine.setThresholds(20, GestureEngine.DEFAULT_MIN_VELOCITY);
+		flickEngine.setEarlyTrigger(0.8f);
+
+		// a slow swipe at 120 Hz crossing the distance threshold half way
+		actions = new int[SAMPLES];
+		xs = new float[SAMPLES];
+		ys = new float[SAMPLES];
+		times = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			actions[i] = i == 0 ? GestureEngine.ACTION_DOWN : i == SAMPLES - 1 ? GestureEngine.ACTION_UP : GestureEngine.ACTION_MOVE;
+			xs[i] = 700 + i;
+			ys[i] = 2 + i * 0.4f;
+			times[i] = i * FRAME_NANOS;
+		}
+	}
+
+	@Benchmark
+	public int swipe() {
+		int decisions = 0;
+		for (int i = 0; i < SAMPLES; i++)
+			decisions += engine.onTouchEvent(actions[i], xs[i], ys[i], 1, times[i]);
+		return decisions;
+	}
+
+	@Benchmark
+	public int move() {
+		engine.onTouchEvent(GestureEngine.ACTION_DOWN, 100, 2, 1, 0);
+		return engine.onTouchEvent(GestureEngine.ACTION_MOVE, 100, 4, 1, FRAME_NANOS);
+	}
+
+	@Benchmark
+	public int flick() {
+		// 16 px in one frame is below the distance threshold, but fast enough for the early trigger
+		flickEngine.onTouchEvent(GestureEngine.ACTION_DOWN, 100, 2, 1, 0);
+		return flickEngine.onTouchEvent(GestureEngine.ACTION_MOVE, 100, 18, 1, FRAME_NANOS);
+	}
+}
@@ -0,0 +1,117 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import android.os.Looper;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+import com.nineoldandroids.animation.FakeFrameSource;
+import com.nineoldandroids.animation.ValueAnimator;
+
+/**
+ * One animation frame of a group of animators with the given number of keyframes. The
+ * "float" and "int" kinds play through the keyframes in order, "seek" jumps to a random
+ * fraction on every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyframeSetBenchmark {
+
+	private static final int ANIMATORS = 16;
+
+	@Param({ "2", "8", "64" })
+	public int keyframes;
+
+	@Param({ "float", "int", "seek" })
+	public String kind;
+
+	private Looper looper;
+	private FakeFrameSource frameSource;
+	private ValueAnimator[] animators;
+
+	@Setup
+	public void setup() {
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+		looper = Looper.myLooper();
+		frameSource = new FakeFrameSource(16);
+		ValueAnimator.setFrameSource(frameSource);
+		Random random = new Random(1);
+		animators = new ValueAnimator[ANIMATORS];
+		for (int a = 0; a < ANIMATORS; a++) {
+			float[] floats = new float[keyframes];
+			int[] ints = new int[keyframes];
+			for (int i = 0; i < keyframes; i++) {
+				floats[i] = random.nextFloat() * 100;
+				ints[i] = random.nextInt(1000);
+			}
+			ValueAnimator animator = new ValueAnimator();
+			if ("int".equals(kind))
+				animator.setIntValues(ints);
+			else
+				animator.setFloatValues(floats);
+			animator.setInterpolator("seek".equals(kind) ? new RandomInterpolator(random) : new LinearInterpolator());
+			animator.setDuration(1000);
+			animator.setRepeatCount(ValueAnimator.INFINITE);
+			animator.start();
+			animators[a] = animator;
+		}
+		looper.dispatchNext();
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (ValueAnimator animator : animators)
+			animator.cancel();
+		looper.clear();
+		ValueAnimator.setFrameSource(null);
+	}
+
+	@Benchmark
+	public boolean frame() {
+		return frameSource.nextFrame();
+	}
+
+	private static class RandomInterpolator implements Interpolator {
+		private final float[] fractions = new float[256];
+		private int next;
+
+		private RandomInterpolator(Random random) {
+			for (int i = 0; i < fractions.length; i++)
+				fractions[i] = random.nextFloat();
+		}
+
+		@Override
+		public float getInterpolation(float input) {
+			return fractions[next++ & 255];
+		}
+	}
+}
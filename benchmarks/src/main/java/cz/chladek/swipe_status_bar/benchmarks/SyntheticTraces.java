@@ -0,0 +1,105 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.Random;
+
+import cz.chladek.swipe_status_bar.GestureEngine;
+import cz.chladek.swipe_status_bar.TouchTrace;
+
+/**
+ * Generates labeled gestures for {@link TraceReplay}: swipes and flicks away
+ * from the edge that should trigger, taps and swipes along the edge that
+ * should not.
+ */
+public class SyntheticTraces {
+
+	private static final int EDGE_LENGTH = 1080;
+	private static final int SCREEN_HEIGHT = 1920;
+	private static final int AREA_DEPTH = 25;
+
+	private final Random random;
+	private float x, y;
+
+	public SyntheticTraces(long seed) {
+		random = new Random(seed);
+	}
+
+	public void next(TouchTrace trace) {
+		trace.clear();
+		int edge = random.nextInt(4);
+		trace.setEdge(edge);
+		float along = random.nextFloat() * EDGE_LENGTH;
+		float depth = random.nextFloat() * AREA_DEPTH;
+		long time = (long) (random.nextFloat() * 1e12f);
+		int kind = random.nextInt(100);
+		if (kind < 50) {
+			// regular swipe
+			trace.setLabel(GestureEngine.DECISION_NOTIFICATION);
+			move(trace, edge, along, depth, 20 + random.nextFloat() * 380, (random.nextFloat() - 0.5f) * 40, 40 + random.nextInt(360), time);
+		} else if (kind < 65) {
+			// fast flick
+			trace.setLabel(GestureEngine.DECISION_NOTIFICATION);
+			move(trace, edge, along, depth, 60 + random.nextFloat() * 240, (random.nextFloat() - 0.5f) * 20, 30 + random.nextInt(30), time);
+		} else if (kind < 85) {
+			// tap with a little jitter
+			trace.setLabel(GestureEngine.DECISION_NONE);
+			move(trace, edge, along, depth, random.nextFloat() * 3, (random.nextFloat() - 0.5f) * 4, 30 + random.nextInt(120), time);
+		} else {
+			// swipe along the edge
+			trace.setLabel(GestureEngine.DECISION_NONE);
+			move(trace, edge, along, depth, random.nextFloat() * 4 - 2, (random.nextBoolean() ? 1 : -1) * (30 + random.nextFloat() * 170), 60 + random.nextInt(300),
+					time);
+		}
+	}
+
+	private void move(TouchTrace trace, int edge, float along, float depth, float travel, float drift, int durationMillis, long time) {
+		point(edge, along, depth);
+		trace.add(GestureEngine.ACTION_DOWN, x, y, 1, time);
+		int elapsed = 0;
+		while (elapsed < durationMillis) {
+			elapsed = Math.min(elapsed + 8 + random.nextInt(9), durationMillis);
+			float progress = elapsed / (float) durationMillis;
+			point(edge, along + drift * progress, depth + travel * progress);
+			trace.add(GestureEngine.ACTION_MOVE, x, y, 1, time + elapsed * 1000000L);
+		}
+		trace.add(GestureEngine.ACTION_UP, x, y, 1, time + (elapsed + 5) * 1000000L);
+	}
+
+	/**
+	 * Converts a position along the edge and the distance from it to the
+	 * coordinates passed to the engine.
+	 */
+	private void point(int edge, float along, float depth) {
+		switch (edge) {
+		case GestureEngine.EDGE_BOTTOM:
+			x = along;
+			y = SCREEN_HEIGHT - depth;
+			break;
+		case GestureEngine.EDGE_LEFT:
+			x = depth;
+			y = along;
+			break;
+		case GestureEngine.EDGE_RIGHT:
+			x = AREA_DEPTH - depth;
+			y = along;
+			break;
+		default:
+			x = along;
+			y = depth;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cz.chladek.swipe_status_bar.GestureEngine;
+import cz.chladek.swipe_status_bar.TouchTrace;
+
+/**
+ * Feeds touch traces through {@link GestureEngine} and reports how well the
+ * decisions match the trace labels, together with the processing time per
+ * event. Traces are read from the given files, recorded on a device with the
+ * "Record touches" developer option, or generated by {@link SyntheticTraces}.
+ * Recorded gestures that started outside of the trigger zones never reached
+ * the recognizer on the device, they are counted but not replayed. The
+ * thresholds default to the ones of the app.
+ * 
+ * <pre>
+ * TraceReplay [-n count] [-seed seed] [-distance px] [-velocity px/s] [-confidence c] [-o file] [trace files...]
+ * </pre>
+ */
+public class TraceReplay {
+
+	private static final int EDGES = 4;
+
+	private final GestureEngine[] engines = new GestureEngine[EDGES];
+	private final float minDistance, minVelocity, confidence;
+	private long[] eventNanos = new long[1024];
+	private int events;
+	private int traces, swipes, triggered, falsePositives, misses, outside;
+	private long decisionNanos, decisionMoves;
+
+	public TraceReplay(float minDistance, float minVelocity, float confidence) {
+		this.minDistance = minDistance;
+		this.minVelocity = minVelocity;
+		this.confidence = confidence;
+		for (int edge = 0; edge < EDGES; edge++) {
+			engines[edge] = new GestureEngine();
+			engines[edge].setEdge(edge);
+			engines[edge].setThresholds(minDistance, minVelocity);
+			engines[edge].setEarlyTrigger(confidence);
+		}
+	}
+
+	public void reset() {
+		events = traces = swipes = triggered = falsePositives = misses = outside = 0;
+		decisionNanos = decisionMoves = 0;
+	}
+
+	public void replay(TouchTrace trace) {
+		if (trace.getZone() < 0) {
+			outside++;
+			return;
+		}
+		GestureEngine engine = engines[trace.getEdge()];
+		int decision = GestureEngine.DECISION_NONE;
+		float originX = trace.getOriginX();
+		for (int i = 0, size = trace.size(); i < size; i++) {
+			long start = System.nanoTime();
+			int d = engine.onTouchEvent(trace.getAction(i), trace.getX(i) - originX, trace.getY(i), trace.getPointerCount(i), trace.getTimestamp(i));
+			long end = System.nanoTime();
+			if (events == eventNanos.length)
+				eventNanos = Arrays.copyOf(eventNanos, events * 2);
+			eventNanos[events++] = end - start;
+			if (decision == GestureEngine.DECISION_NONE && d != GestureEngine.DECISION_NONE) {
+				decision = d;
+				decisionNanos += trace.getTimestamp(i) - trace.getTimestamp(0);
+				decisionMoves += i;
+			}
+		}
+		boolean expected = trace.getLabel() != GestureEngine.DECISION_NONE;
+		boolean fired = decision != GestureEngine.DECISION_NONE;
+		traces++;
+		if (expected)
+			swipes++;
+		if (fired)
+			triggered++;
+		if (fired && !expected)
+			falsePositives++;
+		else if (!fired && expected)
+			misses++;
+	}
+
+	public void report() {
+		int others = traces - swipes;
+		System.out.println(String.format("Thresholds: distance %.1f px, velocity %.0f px/s, early trigger confidence %.2f", minDistance, minVelocity, confidence));
+		System.out.println("Traces: " + traces + " (" + swipes + " swipes, " + others + " others), triggered " + triggered + ", " + outside
+				+ " outside of zones not replayed");
+		System.out.println(String.format("Accuracy: %.2f%%", percent(traces - falsePositives - misses, traces)));
+		System.out.println(String.format("False positives: %d (%.2f%% of others)", falsePositives, percent(falsePositives, others)));
+		System.out.println(String.format("Missed: %d (%.2f%% of swipes)", misses, percent(misses, swipes)));
+		if (triggered > 0)
+			System.out.println(String.format("Decision after: %.2f ms, %.2f moves on average", decisionNanos / 1e6 / triggered, decisionMoves / (double) triggered));
+		if (events == 0)
+			return;
+		long[] sorted = Arrays.copyOf(eventNanos, events);
+		Arrays.sort(sorted);
+		long sum = 0;
+		for (long n : sorted)
+			sum += n;
+		System.out.println(String.format("Events: %d, processing ns per event: mean %d, p50 %d, p99 %d, max %d", events, sum / events, sorted[events / 2],
+				sorted[(int) Math.min(events - 1, (long) events * 99 / 100)], sorted[events - 1]));
+	}
+
+	private static double percent(int part, int total) {
+		return total == 0 ? 0 : part * 100.0 / total;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int count = 10000;
+		long seed = 1;
+		float minDistance = GestureEngine.DEFAULT_MIN_DISTANCE;
+		float minVelocity = GestureEngine.DEFAULT_MIN_VELOCITY;
+		float confidence = GestureEngine.DEFAULT_EARLY_TRIGGER;
+		String output = null;
+		List<String> files = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("-n"))
+				count = Integer.parseInt(args[++i]);
+			else if (arg.equals("-seed"))
+				seed = Long.parseLong(args[++i]);
+			else if (arg.equals("-distance"))
+				minDistance = Float.parseFloat(args[++i]);
+			else if (arg.equals("-velocity"))
+				minVelocity = Float.parseFloat(args[++i]);
+			else if (arg.equals("-confidence"))
+				confidence = Float.parseFloat(args[++i]);
+			else if (arg.equals("-o"))
+				output = args[++i];
+			else if (arg.length() > 0)
+				files.add(arg);
+		}
+
+		List<TouchTrace> traces = new ArrayList<TouchTrace>();
+		if (files.isEmpty()) {
+			SyntheticTraces generator = new SyntheticTraces(seed);
+			for (int i = 0; i < count; i++) {
+				TouchTrace trace = new TouchTrace();
+				generator.next(trace);
+				traces.add(trace);
+			}
+		} else
+			for (String file : files)
+				read(file, traces);
+		if (output != null)
+			write(output, traces);
+
+		TraceReplay replay = new TraceReplay(minDistance, minVelocity, confidence);
+		// the first pass only warms up the JIT
+		for (int pass = 0; pass < 2; pass++) {
+			replay.reset();
+			for (TouchTrace trace : traces)
+				replay.replay(trace);
+		}
+		replay.report();
+	}
+
+	private static void read(String file, List<TouchTrace> traces) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			int version = TouchTrace.readHeader(in);
+			TouchTrace trace = new TouchTrace();
+			while (trace.read(in, version)) {
+				traces.add(trace);
+				trace = new TouchTrace();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	private static void write(String file, List<TouchTrace> traces) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			TouchTrace.writeHeader(out);
+			for (TouchTrace trace : traces)
+				trace.write(out);
+		} finally {
+			out.close();
+		}
+	}
+}
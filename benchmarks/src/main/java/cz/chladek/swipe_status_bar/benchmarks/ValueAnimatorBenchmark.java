@@ -0,0 +1,82 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import android.os.Looper;
+
+import com.nineoldandroids.animation.FakeFrameSource;
+import com.nineoldandroids.animation.ValueAnimator;
+
+/**
+ * Cost of one animation frame with the given number of running animators. The start
+ * goes through the Looper stand-in of this module, the frames come from a
+ * {@link FakeFrameSource}, so every frame advances the animations by the same time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValueAnimatorBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int animators;
+
+	private Looper looper;
+	private FakeFrameSource frameSource;
+	private ValueAnimator[] running;
+
+	@Setup
+	public void setup() {
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+		looper = Looper.myLooper();
+		frameSource = new FakeFrameSource(16);
+		ValueAnimator.setFrameSource(frameSource);
+		running = new ValueAnimator[animators];
+		for (int i = 0; i < animators; i++) {
+			running[i] = ValueAnimator.ofFloat(0, 1);
+			running[i].setDuration(1000);
+			running[i].setRepeatCount(ValueAnimator.INFINITE);
+			running[i].start();
+		}
+		// the start message also runs the first frame
+		looper.dispatchNext();
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (ValueAnimator animator : running)
+			animator.cancel();
+		looper.clear();
+		ValueAnimator.setFrameSource(null);
+	}
+
+	@Benchmark
+	public boolean frame() {
+		return frameSource.nextFrame();
+	}
+}
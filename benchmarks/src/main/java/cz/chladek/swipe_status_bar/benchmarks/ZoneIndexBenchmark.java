@@ -0,0 +1,58 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cz.chladek.swipe_status_bar.ZoneIndex;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ZoneIndexBenchmark {
+
+	private static final int LENGTH = 1080;
+
+	@Param({ "1", "8", "64" })
+	public int zones;
+
+	private ZoneIndex index;
+	private int position;
+
+	@Setup
+	public void setup() {
+		index = new ZoneIndex();
+		// zones with gaps between them, so misses are measured as well
+		for (int i = 0; i < zones; i++)
+			index.add(i / (float) zones, (i + 0.8f) / zones, i % 3);
+		index.layout(LENGTH);
+	}
+
+	@Benchmark
+	public int find() {
+		position = (position + 37) % LENGTH;
+		return index.find(position);
+	}
+}
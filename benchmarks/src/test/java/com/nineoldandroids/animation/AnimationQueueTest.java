@@ -0,0 +1,99 @@
+package com.nineoldandroids.animation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AnimationQueueTest {
+
+	private final AnimationQueue queue = new AnimationQueue(AnimationQueue.ACTIVE);
+
+	private ValueAnimator[] fill(int count) {
+		ValueAnimator[] anims = new ValueAnimator[count];
+		for (int i = 0; i < count; i++) {
+			anims[i] = new ValueAnimator();
+			queue.add(anims[i]);
+		}
+		return anims;
+	}
+
+	@Test
+	public void removalsOutOfOrderOnlyEmptyTheirSlots() {
+		ValueAnimator[] anims = fill(10);
+		int[] removed = { 7, 2, 9, 0, 5 };
+		for (int i : removed)
+			assertTrue(queue.remove(anims[i]));
+		assertEquals(5, queue.size());
+		assertEquals(10, queue.end());
+		for (int i = 0; i < anims.length; i++)
+			if (anims[i].mQueueSlots[AnimationQueue.ACTIVE] < 0) {
+				assertFalse(queue.contains(anims[i]));
+				assertNull(queue.get(i));
+			} else {
+				// nothing behind a removed animator was shifted
+				assertTrue(queue.contains(anims[i]));
+				assertSame(anims[i], queue.get(i));
+				assertEquals(i, anims[i].mQueueSlots[AnimationQueue.ACTIVE]);
+			}
+		assertFalse(queue.remove(anims[7]));
+	}
+
+	@Test
+	public void compactKeepsTheOrder() {
+		ValueAnimator[] anims = fill(8);
+		queue.remove(anims[6]);
+		queue.remove(anims[0]);
+		queue.remove(anims[3]);
+		queue.compact();
+		int[] expected = { 1, 2, 4, 5, 7 };
+		assertEquals(expected.length, queue.end());
+		for (int i = 0; i < expected.length; i++) {
+			assertSame(anims[expected[i]], queue.get(i));
+			assertEquals(i, anims[expected[i]].mQueueSlots[AnimationQueue.ACTIVE]);
+		}
+		queue.add(anims[0]);
+		assertSame(anims[0], queue.get(expected.length));
+	}
+
+	@Test
+	public void iterationSeesChangesMadeDuringIt() {
+		ValueAnimator[] anims = fill(4);
+		ValueAnimator late = new ValueAnimator();
+		int visited = 0;
+		for (int i = 0; i < queue.end(); i++) {
+			ValueAnimator anim = queue.get(i);
+			if (anim == null)
+				continue;
+			visited++;
+			if (anim == anims[0]) {
+				// ends an animator that was not processed yet and starts another one
+				queue.remove(anims[2]);
+				queue.add(late);
+			}
+			queue.remove(anim);
+		}
+		assertEquals(4, visited);
+		assertTrue(queue.isEmpty());
+		queue.compact();
+		assertEquals(0, queue.end());
+	}
+
+	@Test
+	public void queuesOfEachKindAreIndependent() {
+		AnimationQueue delayed = new AnimationQueue(AnimationQueue.DELAYED);
+		ValueAnimator[] anims = fill(3);
+		delayed.add(anims[2]);
+		delayed.add(anims[2]);
+		assertEquals(1, delayed.size());
+		assertEquals(0, anims[2].mQueueSlots[AnimationQueue.DELAYED]);
+		assertEquals(2, anims[2].mQueueSlots[AnimationQueue.ACTIVE]);
+		queue.clear();
+		assertTrue(delayed.contains(anims[2]));
+		assertFalse(queue.contains(anims[2]));
+		assertEquals(0, queue.end());
+	}
+}
@@ -0,0 +1,163 @@
+package com.nineoldandroids.animation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.os.Looper;
+
+public class ValueAnimatorTest {
+
+	private static final long FRAME = 16;
+
+	private Looper looper;
+	private FakeFrameSource frameSource;
+
+	@Before
+	public void setUp() {
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+		looper = Looper.myLooper();
+		frameSource = new FakeFrameSource(FRAME);
+		ValueAnimator.setFrameSource(frameSource);
+	}
+
+	@After
+	public void tearDown() {
+		looper.clear();
+		ValueAnimator.setFrameSource(null);
+	}
+
+	private void dispatchMessages() {
+		while (looper.dispatchNext())
+			;
+	}
+
+	private static ValueAnimator animator(long duration) {
+		ValueAnimator anim = ValueAnimator.ofFloat(0, 1);
+		anim.setDuration(duration);
+		return anim;
+	}
+
+	/**
+	 * Runs frames until the animator ends.
+	 * 
+	 * @return number of frames after the start message
+	 */
+	private int runToEnd(ValueAnimator anim) {
+		anim.start();
+		dispatchMessages();
+		int frames = 0;
+		while (anim.isRunning()) {
+			assertTrue(frameSource.nextFrame());
+			frames++;
+		}
+		return frames;
+	}
+
+	private static class Counter implements Animator.AnimatorListener {
+
+		int repeats, ends;
+
+		@Override
+		public void onAnimationStart(Animator animation) {
+		}
+
+		@Override
+		public void onAnimationRepeat(Animator animation) {
+			repeats++;
+		}
+
+		@Override
+		public void onAnimationCancel(Animator animation) {
+		}
+
+		@Override
+		public void onAnimationEnd(Animator animation) {
+			ends++;
+		}
+	}
+
+	@Test
+	public void endsOnTheFirstFrameAfterItsDuration() {
+		ValueAnimator anim = animator(100);
+		Counter counter = new Counter();
+		anim.addListener(counter);
+		// frames at 16 .. 96 ms are inside the duration, the one at 112 ms ends it
+		assertEquals(7, runToEnd(anim));
+		assertEquals(1, counter.ends);
+		assertEquals(1f, (Float) anim.getAnimatedValue(), 0);
+		assertEquals(0, ValueAnimator.getCurrentAnimationsCount());
+		assertFalse(frameSource.hasPendingFrame());
+	}
+
+	@Test
+	public void repeatsRestartTheGivenNumberOfTimes() {
+		ValueAnimator anim = animator(3 * FRAME);
+		anim.setRepeatCount(2);
+		Counter counter = new Counter();
+		anim.addListener(counter);
+		assertEquals(9, runToEnd(anim));
+		assertEquals(2, counter.repeats);
+		assertEquals(1, counter.ends);
+		assertEquals(1f, (Float) anim.getAnimatedValue(), 0);
+	}
+
+	@Test
+	public void oddRepeatCountInReverseEndsAtTheStart() {
+		ValueAnimator anim = animator(2 * FRAME);
+		anim.setRepeatCount(1);
+		anim.setRepeatMode(ValueAnimator.REVERSE);
+		Counter counter = new Counter();
+		anim.addListener(counter);
+		assertEquals(4, runToEnd(anim));
+		assertEquals(1, counter.repeats);
+		assertEquals(0f, (Float) anim.getAnimatedValue(), 0);
+	}
+
+	@Test
+	public void animatorsStartedAndEndedOutOfOrder() {
+		ValueAnimator[] anims = { animator(5 * FRAME), animator(FRAME), animator(3 * FRAME), animator(10 * FRAME), animator(2 * FRAME),
+				animator(4 * FRAME) };
+		for (int i = 0; i < anims.length; i++)
+			if (i != 3)
+				anims[i].start();
+		dispatchMessages();
+		assertEquals(5, ValueAnimator.getCurrentAnimationsCount());
+
+		// the shortest animators end on their own while others are ended from outside
+		frameSource.nextFrame();
+		assertRunning(anims, true, false, true, false, true, true);
+		anims[5].cancel();
+		anims[3].start();
+		dispatchMessages();
+		assertRunning(anims, true, false, true, true, true, false);
+		frameSource.nextFrame();
+		assertRunning(anims, true, false, true, true, false, false);
+		anims[0].end();
+		assertRunning(anims, false, false, true, true, false, false);
+		assertEquals(2, ValueAnimator.getCurrentAnimationsCount());
+		frameSource.nextFrame();
+		assertRunning(anims, false, false, false, true, false, false);
+
+		// a restarted animator is queued again behind the running one
+		anims[1].start();
+		dispatchMessages();
+		assertRunning(anims, false, true, false, true, false, false);
+		assertEquals(2, ValueAnimator.getCurrentAnimationsCount());
+		while (frameSource.nextFrame())
+			;
+		assertRunning(anims, false, false, false, false, false, false);
+		assertEquals(0, ValueAnimator.getCurrentAnimationsCount());
+		assertFalse(frameSource.hasPendingFrame());
+	}
+
+	private static void assertRunning(ValueAnimator[] anims, boolean... running) {
+		for (int i = 0; i < anims.length; i++)
+			assertEquals("animator " + i, running[i], anims[i].isRunning());
+	}
+}
@@ -0,0 +1,203 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.os.Looper;
+import android.os.Vibrator;
+
+/**
+ * Every expansion has to end with {@link ServiceState} back in ARMED, or in
+ * STOPPED once the service is gone, whatever stage fails.
+ */
+public class ActionDispatcherTest {
+
+	// passed through to the target only
+	private static final int MODE = 1;
+
+	private final FakeTarget target = new FakeTarget();
+	private final ArrayList<String> transitions = new ArrayList<String>();
+	private final ServiceState.OnStateChangeListener listener = new ServiceState.OnStateChangeListener() {
+		@Override
+		public void stateChanged(int oldState, int newState) {
+			transitions.add(ServiceState.getName(newState));
+		}
+	};
+	private Looper main;
+	private ActionDispatcher dispatcher;
+	private Looper worker;
+
+	@Before
+	public void setUp() {
+		Looper.prepareMainLooper();
+		main = Looper.getMainLooper();
+		dispatcher = new ActionDispatcher(new Vibrator(), target);
+		worker = dispatcher.getLooper();
+		ServiceState.serviceCreated(new StatusBarService());
+		ServiceState.addListener(listener);
+	}
+
+	@After
+	public void tearDown() {
+		ServiceState.removeListener(listener);
+		ServiceState.serviceDestroyed();
+		main.clear();
+	}
+
+	private void assertTransitions(String... states) {
+		assertEquals(Arrays.asList(states), transitions);
+	}
+
+	@Test
+	public void expansionIsRestored() {
+		dispatcher.dispatch(MODE, 20);
+		assertEquals(ServiceState.EXPANDING, ServiceState.getState());
+		// the expansion is queued only once the window stage ran
+		assertFalse(worker.dispatchNext());
+		main.dispatchNext();
+		worker.dispatchNext();
+		assertEquals(1, target.expands);
+		dispatcher.restore();
+		worker.dispatchNext();
+		assertEquals(1, target.restores);
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void failedWindowStageRestoresWithoutExpanding() {
+		target.windowAttached = false;
+		dispatcher.dispatch(MODE, 0);
+		main.dispatchNext();
+		worker.dispatchNext();
+		assertFalse(worker.dispatchNext());
+		assertEquals(0, target.expands);
+		assertEquals(1, target.restores);
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void failedExpandStageRestores() {
+		target.expandFails = true;
+		dispatcher.dispatch(MODE, 0);
+		main.dispatchNext();
+		worker.dispatchNext();
+		assertEquals(1, target.restores);
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void disposeBeforeTheWindowStageRestores() {
+		dispatcher.dispatch(MODE, 0);
+		dispatcher.dispose();
+		assertFalse(main.dispatchNext());
+		assertEquals(0, target.windows);
+		assertEquals(1, target.restores);
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void disposeOfAnExpansionNobodyRestoredRestoresIt() {
+		dispatcher.dispatch(MODE, 0);
+		main.dispatchNext();
+		worker.dispatchNext();
+		dispatcher.dispose();
+		assertEquals(1, target.restores);
+		ServiceState.serviceDestroyed();
+		assertTransitions("expanding", "restoring", "armed", "stopped");
+	}
+
+	@Test
+	public void disposeDropsAQueuedExpansion() {
+		dispatcher.dispatch(MODE, 0);
+		main.dispatchNext();
+		dispatcher.dispose();
+		assertFalse(worker.dispatchNext());
+		assertEquals(0, target.expands);
+		assertEquals(1, target.restores);
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void disposeDuringTheExpandStageRestoresAfterIt() {
+		target.disposeOnExpand = dispatcher;
+		dispatcher.dispatch(MODE, 0);
+		main.dispatchNext();
+		worker.dispatchNext();
+		assertEquals(Arrays.asList("restore", "expand", "restore"), target.stages);
+		assertEquals(ServiceState.ARMED, ServiceState.getState());
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	@Test
+	public void disposeWhenArmedDoesNotRestore() {
+		dispatcher.dispose();
+		assertEquals(0, target.restores);
+		assertEquals(ServiceState.ARMED, ServiceState.getState());
+	}
+
+	@Test
+	public void secondSwipeDuringAnExpansionKeepsOneWayBack() {
+		dispatcher.dispatch(MODE, 0);
+		dispatcher.dispatch(MODE, 0);
+		while (main.dispatchNext() || worker.dispatchNext())
+			;
+		assertEquals(2, target.expands);
+		dispatcher.restore();
+		worker.dispatchNext();
+		assertEquals(ServiceState.ARMED, ServiceState.getState());
+		assertTransitions("expanding", "restoring", "armed");
+	}
+
+	private static class FakeTarget implements ActionDispatcher.Target {
+
+		boolean windowAttached = true, expandFails;
+		int windows, expands, restores;
+		final ArrayList<String> stages = new ArrayList<String>();
+		// disposes while the expansion runs, as the main thread may
+		ActionDispatcher disposeOnExpand;
+
+		@Override
+		public boolean onWindowStage(int mode) {
+			windows++;
+			return windowAttached;
+		}
+
+		@Override
+		public void onExpandStage(int mode, long dispatchTime) {
+			if (expandFails)
+				throw new SecurityException("expansion not permitted");
+			if (disposeOnExpand != null)
+				disposeOnExpand.dispose();
+			stages.add("expand");
+			expands++;
+		}
+
+		@Override
+		public void onRestoreStage() {
+			stages.add("restore");
+			restores++;
+		}
+	}
+}
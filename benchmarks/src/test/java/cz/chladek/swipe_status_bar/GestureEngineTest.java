@@ -0,0 +1,92 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+public class GestureEngineTest {
+
+	private static final long FRAME_NANOS = 8333333L;
+	private static final int GESTURES = 10000;
+
+	@Test
+	public void swipeAwayFromTheEdgeIsRecognizedOnce() {
+		GestureEngine engine = new GestureEngine();
+		assertEquals(GestureEngine.DECISION_NONE, engine.onTouchEvent(GestureEngine.ACTION_DOWN, 100, 2, 1, 0));
+		assertEquals(GestureEngine.DECISION_NONE, engine.onTouchEvent(GestureEngine.ACTION_MOVE, 100, 4, 1, FRAME_NANOS));
+		assertEquals(GestureEngine.DECISION_NOTIFICATION, engine.onTouchEvent(GestureEngine.ACTION_MOVE, 100, 12, 1, 2 * FRAME_NANOS));
+		assertEquals(GestureEngine.DECISION_NONE, engine.onTouchEvent(GestureEngine.ACTION_MOVE, 100, 30, 1, 3 * FRAME_NANOS));
+	}
+
+	/**
+	 * Runs the events the way StatusBarService.onTouch does for its gesture
+	 * areas, recognition plus the latency record. The MotionEvent accessors and
+	 * the GestureConfig fields read for a decision need the framework and are
+	 * not covered.
+	 */
+	@Test
+	public void touchEventsDoNotAllocate() {
+		GestureEngine engine = new GestureEngine();
+		engine.setThresholds(20, 200);
+		engine.setEarlyTrigger(0.8f);
+		LatencyHistogram latency = new LatencyHistogram("touch");
+		// the first runs load classes and may allocate, they are not measured
+		swipes(engine, latency, 100);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		long overhead = threads.getThreadAllocatedBytes(thread) - before;
+		before = threads.getThreadAllocatedBytes(thread);
+		int decisions = swipes(engine, latency, GESTURES);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+		assertEquals(GESTURES, decisions);
+		// a single allocation per event would be at least 16 bytes each
+		assertTrue(allocated + " bytes allocated for " + GESTURES * 8 + " events", allocated < GESTURES);
+	}
+
+	/**
+	 * @return number of gestures recognized, each is a slow swipe crossing the
+	 *         distance threshold followed by a flick triggering early
+	 */
+	private static int swipes(GestureEngine engine, LatencyHistogram latency, int count) {
+		int decisions = 0;
+		for (int i = 0; i < count; i++) {
+			boolean flick = (i & 1) != 0;
+			decisions += touch(engine, latency, GestureEngine.ACTION_DOWN, 100, 2, 0) != GestureEngine.DECISION_NONE ? 1 : 0;
+			for (int j = 1; j < 7; j++) {
+				float y = flick ? 2 + j * 16 : 2 + j * 4;
+				if (touch(engine, latency, GestureEngine.ACTION_MOVE, 100 + j, y, j * FRAME_NANOS) != GestureEngine.DECISION_NONE)
+					decisions++;
+			}
+			touch(engine, latency, GestureEngine.ACTION_UP, 107, 40, 7 * FRAME_NANOS);
+		}
+		return decisions;
+	}
+
+	private static int touch(GestureEngine engine, LatencyHistogram latency, int action, float x, float y, long timestampNanos) {
+		long start = System.nanoTime();
+		int decision = engine.onTouchEvent(action, x, y, 1, timestampNanos);
+		latency.record(System.nanoTime() - start);
+		return decision;
+	}
+}
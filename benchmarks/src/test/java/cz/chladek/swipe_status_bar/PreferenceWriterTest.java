@@ -0,0 +1,143 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+public class PreferenceWriterTest {
+
+	private final FakePreferences prefs = new FakePreferences();
+	private Looper looper;
+
+	@Before
+	public void setUp() {
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+		looper = Looper.myLooper();
+	}
+
+	@After
+	public void tearDown() {
+		looper.clear();
+	}
+
+	@Test
+	public void editsWithinTheDelayAreWrittenOnce() {
+		PreferenceWriter writer = new PreferenceWriter(prefs);
+		writer.putFloat("position", 0.1f);
+		writer.putFloat("position", 0.2f);
+		writer.putFloat("width", 0.5f);
+		writer.putBoolean("vibrate", true);
+		assertEquals(0, prefs.writes);
+
+		// every put moved the one pending flush instead of adding another
+		assertTrue(looper.dispatchNext());
+		assertFalse(looper.dispatchNext());
+		assertEquals(1, prefs.writes);
+		assertEquals(0.2f, prefs.values.get("position"));
+		assertEquals(0.5f, prefs.values.get("width"));
+		assertEquals(true, prefs.values.get("vibrate"));
+	}
+
+	@Test
+	public void flushWritesPendingEditsImmediately() {
+		PreferenceWriter writer = new PreferenceWriter(prefs);
+		writer.putInt("strength", 30);
+		writer.putString("mode", "window");
+		writer.flush();
+		assertEquals(1, prefs.writes);
+		assertEquals(30, prefs.values.get("strength"));
+		assertEquals("window", prefs.values.get("mode"));
+		// the delayed flush was cancelled, nothing is left to write
+		assertEquals(-1, looper.nextWhen());
+		writer.flush();
+		assertEquals(1, prefs.writes);
+	}
+
+	@Test
+	public void editsAfterAFlushAreWrittenSeparately() {
+		PreferenceWriter writer = new PreferenceWriter(prefs);
+		writer.putInt("strength", 10);
+		looper.dispatchNext();
+		writer.putInt("strength", 20);
+		looper.dispatchNext();
+		assertEquals(2, prefs.writes);
+		assertEquals(20, prefs.values.get("strength"));
+	}
+
+	private static class FakePreferences implements SharedPreferences {
+
+		final HashMap<String, Object> values = new HashMap<String, Object>();
+		int writes;
+
+		@Override
+		public Editor edit() {
+			return new FakeEditor();
+		}
+
+		private class FakeEditor implements Editor {
+
+			private final HashMap<String, Object> edits = new HashMap<String, Object>();
+
+			@Override
+			public Editor putInt(String key, int value) {
+				edits.put(key, value);
+				return this;
+			}
+
+			@Override
+			public Editor putFloat(String key, float value) {
+				edits.put(key, value);
+				return this;
+			}
+
+			@Override
+			public Editor putBoolean(String key, boolean value) {
+				edits.put(key, value);
+				return this;
+			}
+
+			@Override
+			public Editor putString(String key, String value) {
+				edits.put(key, value);
+				return this;
+			}
+
+			@Override
+			public boolean commit() {
+				values.putAll(edits);
+				writes++;
+				return true;
+			}
+
+			@Override
+			public void apply() {
+				commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/* SwipeStatusBar  - Access the Status Bar Anywhere, Anytime
+        Copyright (C) 2013 Thomas.
+
+        This file is part of SwipeStatusBar.
+        SwipeStatusBar is free software: you can redistribute it and/or modify
+        it under the terms of the GNU General Public License as published by
+        the Free Software Foundation, either version 2 of the License, or
+        (at your option) any later version.
+        SwipeStatusBar is distributed in the hope that it will be useful,
+        but WITHOUT ANY WARRANTY; without even the implied warranty of
+        MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+        GNU General Public License for more details.
+        You should have received a copy of the GNU General Public License
+        along with SwipeStatusBar. If not, see <http://www.gnu.org/licenses/>.
+*/
+package cz.chladek.swipe_status_bar;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ZoneIndexTest {
+
+	private static final int LENGTH = 1000;
+
+	@Test
+	public void separateZones() {
+		ZoneIndex index = new ZoneIndex();
+		index.add(0.5f, 0.75f, 2);
+		index.add(0, 0.25f, 1);
+		index.layout(LENGTH);
+		assertEquals(0, index.find(0));
+		assertEquals(0, index.find(249));
+		assertEquals(-1, index.find(250));
+		assertEquals(-1, index.find(499));
+		assertEquals(1, index.find(500));
+		assertEquals(2, index.getAction(index.find(600)));
+		assertEquals(-1, index.find(750));
+	}
+
+	@Test
+	public void positionPastANarrowZoneFallsBackToTheWiderOne() {
+		ZoneIndex index = new ZoneIndex();
+		index.add(0, 1, 1);
+		index.add(0.2f, 0.4f, 2);
+		index.layout(LENGTH);
+		assertEquals(1, index.getAction(index.find(100)));
+		assertEquals(2, index.getAction(index.find(300)));
+		assertEquals(1, index.getAction(index.find(500)));
+		assertEquals(1, index.getAction(index.find(999)));
+		assertEquals(-1, index.find(1000));
+	}
+
+	@Test
+	public void nestedZonesMatchTheInnermostStartingLast() {
+		ZoneIndex index = new ZoneIndex(2);
+		index.add(0.1f, 0.9f, 1);
+		index.add(0.2f, 0.5f, 2);
+		index.add(0.3f, 0.4f, 3);
+		index.add(0.6f, 0.7f, 4);
+		index.add(0.95f, 1, 5);
+		index.layout(LENGTH);
+		int[] positions = { 50, 150, 250, 350, 450, 550, 650, 850, 920, 970 };
+		int[] actions = { -1, 1, 2, 3, 2, 1, 4, 1, -1, 5 };
+		for (int i = 0; i < positions.length; i++) {
+			int zone = index.find(positions[i]);
+			assertEquals("position " + positions[i], actions[i], zone >= 0 ? index.getAction(zone) : -1);
+		}
+	}
+
+	@Test
+	public void setCopiesZonesIntoTheCurrentLayout() {
+		ZoneIndex parsed = new ZoneIndex();
+		parsed.add(0.5f, 1, 2);
+		parsed.add(0, 0.5f, 1);
+		ZoneIndex index = new ZoneIndex(1);
+		index.layout(LENGTH);
+		index.add(0, 1, 3);
+		index.set(parsed);
+		assertEquals(2, index.size());
+		assertEquals(1, index.getAction(index.find(100)));
+		assertEquals(500, index.getStart(1));
+		assertEquals(2, index.getAction(index.find(900)));
+	}
+}